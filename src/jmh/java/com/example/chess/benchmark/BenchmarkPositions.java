@@ -0,0 +1,78 @@
+package com.example.chess.benchmark;
+
+import com.example.chess.engine.Board;
+import com.example.chess.exception.game.IllegalMove;
+
+// Фиксированный набор позиций для бенчмарков. Позиции строятся ходами от начальной
+// расстановки, чтобы не зависеть от формата записи позиции.
+final class BenchmarkPositions {
+
+    // {startX, startY, endX, endY}
+    private static final int[][] OPENING = {
+        {4, 1, 4, 3}, {4, 6, 4, 4}, // e4 e5
+        {6, 0, 5, 2}, {1, 7, 2, 5}, // Nf3 Nc6
+        {5, 0, 2, 3}, {5, 7, 2, 4}, // Bc4 Bc5
+    };
+
+    private static final int[][] MIDDLEGAME = {
+        {4, 1, 4, 3}, {4, 6, 4, 4}, // e4 e5
+        {6, 0, 5, 2}, {1, 7, 2, 5}, // Nf3 Nc6
+        {5, 0, 2, 3}, {5, 7, 2, 4}, // Bc4 Bc5
+        {3, 1, 3, 2}, {6, 7, 5, 5}, // d3 Nf6
+        {1, 0, 2, 2}, {3, 6, 3, 5}, // Nc3 d6
+        {2, 0, 4, 2}, {2, 4, 4, 2}, // Be3 Bxe3
+        {5, 1, 4, 2}, {2, 7, 4, 5}, // fxe3 Be6
+        {2, 3, 4, 5}, {5, 6, 4, 5}, // Bxe6 fxe6
+        {3, 0, 4, 1}, {3, 7, 4, 6}, // Qe2 Qe7
+    };
+
+    private BenchmarkPositions() {
+    }
+
+    static Board create(String name) {
+        return switch (name) {
+            case "opening" -> play(OPENING);
+            case "middlegame" -> play(MIDDLEGAME);
+            case "endgame" -> endgame();
+            default -> throw new IllegalArgumentException("Unknown position: " + name);
+        };
+    }
+
+    // ход белых, который бенчмарк делает из позиции
+    static int[] sampleMove(String name) {
+        return switch (name) {
+            case "opening" -> new int[] {3, 1, 3, 2};    // d3
+            case "middlegame" -> new int[] {5, 2, 6, 4}; // Ng5
+            case "endgame" -> new int[] {0, 0, 0, 6};    // Ra7
+            default -> throw new IllegalArgumentException("Unknown position: " + name);
+        };
+    }
+
+    private static Board play(int[][] moves) {
+        Board board = new Board();
+        try {
+            for (int[] move : moves) {
+                board.movePiece(board.getPieceAt(move[0], move[1]), move[2], move[3]);
+            }
+        } catch (IllegalMove e) {
+            throw new IllegalStateException("Benchmark position is not reachable", e);
+        }
+        return board;
+    }
+
+    // ладейный эндшпиль: короли, ладьи a1/a8 и по три пешки на королевском фланге
+    private static Board endgame() {
+        Board board = new Board();
+        for (int x = 0; x < 8; x++) {
+            for (int y = 0; y < 8; y++) {
+                boolean keep = x == 4 && (y == 0 || y == 7)
+                        || x == 0 && (y == 0 || y == 7)
+                        || x >= 5 && (y == 1 || y == 6);
+                if (!keep) {
+                    board.setPieceAt(x, y, null);
+                }
+            }
+        }
+        return board;
+    }
+}
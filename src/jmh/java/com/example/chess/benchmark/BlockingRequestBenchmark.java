@@ -0,0 +1,80 @@
+package com.example.chess.benchmark;
+
+import com.example.chess.config.AsyncConfig;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+// Время обработки всплеска блокирующих запросов (сон вместо ожидания JDBC) исполнителем @Async
+// в обоих режимах AsyncConfig. Пул 2-10 с очередью 100 растёт сверх двух потоков только при
+// полной очереди, поэтому всплеск до 100 задач идёт в два потока. Режим virtual требует JDK 21+:
+// mvn -Pjmh compile exec:exec -Djmh.args="BlockingRequestBenchmark -p mode=platform" на JDK 17
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class BlockingRequestBenchmark {
+
+    @Param({"platform", "virtual"})
+    private String mode;
+
+    // не больше очереди пула: лишние задачи он бы отклонил
+    @Param({"100"})
+    private int burst;
+
+    @Param({"5"})
+    private int blockMillis;
+
+    private AsyncTaskExecutor executor;
+
+    @Setup
+    public void setUp() {
+        AsyncConfig config = new AsyncConfig();
+        if (mode.equals("platform")) {
+            executor = config.taskExecutor();
+        } else if (Runtime.version().feature() >= 21) {
+            executor = config.virtualTaskExecutor();
+        } else {
+            throw new IllegalStateException("Виртуальные потоки доступны с JDK 21, сейчас " + Runtime.version());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (executor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public long burst() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(burst);
+        for (int i = 0; i < burst; i++) {
+            executor.execute(() -> {
+                try {
+                    Thread.sleep(blockMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                done.countDown();
+            });
+        }
+        done.await();
+        return done.getCount();
+    }
+}
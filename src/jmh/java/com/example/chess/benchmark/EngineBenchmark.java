@@ -0,0 +1,116 @@
+package com.example.chess.benchmark;
+
+import com.example.chess.engine.Allocation;
+import com.example.chess.engine.Bitboards;
+import com.example.chess.engine.Board;
+import com.example.chess.engine.GameAnalyzer;
+import com.example.chess.engine.Move;
+import com.example.chess.engine.MoveGenerator;
+import com.example.chess.engine.MoveList;
+import com.example.chess.engine.pieces.Color;
+import com.example.chess.engine.pieces.Piece;
+import com.example.chess.exception.game.IllegalMove;
+import com.example.chess.search.Evaluator;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Запуск: mvn -Pjmh compile exec:exec (по умолчанию с -prof gc)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EngineBenchmark {
+
+    @Param({"opening", "middlegame", "endgame"})
+    private String position;
+
+    private Board board;
+    private int[] move;
+    private Piece movingPiece;
+    private int sampleMove;
+    private final MoveList moveList = new MoveList();
+
+    @Setup
+    public void setUp() {
+        board = BenchmarkPositions.create(position);
+        move = BenchmarkPositions.sampleMove(position);
+        movingPiece = board.getPieceAt(move[0], move[1]);
+        int to = Bitboards.square(move[2], move[3]);
+        MoveList moves = MoveGenerator.generateLegalMoves(board, movingPiece);
+        for (int i = 0; i < moves.size(); i++) {
+            if (Move.to(moves.get(i)) == to) {
+                sampleMove = moves.get(i);
+            }
+        }
+    }
+
+    // включает копирование доски, чтобы каждый вызов начинался с одной и той же позиции
+    @Benchmark
+    public Board movePiece() throws IllegalMove {
+        Board copy = new Board(board);
+        copy.movePiece(copy.getPieceAt(move[0], move[1]), move[2], move[3]);
+        return copy;
+    }
+
+    @Benchmark
+    public Board makeUnmakeMove() {
+        board.makeMove(sampleMove);
+        board.unmakeMove(sampleMove);
+        return board;
+    }
+
+    @Benchmark
+    public Board copyBoard() {
+        return new Board(board);
+    }
+
+    @Benchmark
+    public boolean isCheck() {
+        return GameAnalyzer.isCheck(Color.WHITE, board);
+    }
+
+    @Benchmark
+    public boolean isMate() {
+        return GameAnalyzer.isMate(Color.WHITE, board);
+    }
+
+    @Benchmark
+    public boolean isStalemate() {
+        return GameAnalyzer.isStalemate(Color.WHITE, board);
+    }
+
+    @Benchmark
+    public boolean isPiecePinned() {
+        return GameAnalyzer.isPiecePinned(movingPiece, board);
+    }
+
+    @Benchmark
+    public Object calculateAllMoves() {
+        return new Allocation(movingPiece).calculateAllMoves(board);
+    }
+
+    // генерация всех легальных ходов в переиспользуемый буфер
+    @Benchmark
+    public MoveList generateLegalMoves() {
+        MoveGenerator.generateLegalMoves(board, moveList);
+        return moveList;
+    }
+
+    // материал и "фигура-клетка" уже посчитаны доской, здесь только подвижность и смешивание фаз
+    @Benchmark
+    public int evaluate() {
+        return Evaluator.evaluate(board);
+    }
+}
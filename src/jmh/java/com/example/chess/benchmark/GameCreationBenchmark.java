@@ -0,0 +1,125 @@
+package com.example.chess.benchmark;
+
+import com.example.chess.entity.Player;
+import com.example.chess.service.GameIdAllocator;
+import com.example.chess.service.implementation.GameIdAllocatorImpl;
+import com.example.chess.service.implementation.GameInfoWriterImpl;
+import com.example.chess.service.implementation.GameServiceImpl;
+import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.support.TransactionOperations;
+
+// Создание партий в секунду (GameServiceImpl.initGame) при задержке базы roundTripMicros
+// на каждое обращение. База имитируется: настоящий сервер в бенчмарк не входит.
+//   identity - как было с IDENTITY: id известен только после INSERT, одно обращение на партию
+//   pooled   - GameIdAllocatorImpl берёт блок id одним nextval, строка уходит в GameInfoWriterImpl
+//              и пишется пачкой в фоновом потоке
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class GameCreationBenchmark {
+
+    @Param({"identity", "pooled"})
+    private String mode;
+
+    @Param({"200"})
+    private int roundTripMicros;
+
+    private GameIdAllocator allocator;
+    private GameInfoWriterImpl writer;
+    private ExecutorService flusher;
+    private Player white;
+    private Player black;
+
+    @Setup
+    public void setUp() {
+        SimulatedDatabase database = new SimulatedDatabase(roundTripMicros);
+        flusher = Executors.newSingleThreadExecutor();
+        writer = new GameInfoWriterImpl(database, TransactionOperations.withoutTransaction(), flusher,
+                500, 10_000, 100_000, 1_000);
+        if (mode.equals("identity")) {
+            AtomicLong ids = new AtomicLong();
+            allocator = () -> {
+                database.roundTrip();
+                return ids.incrementAndGet();
+            };
+        } else {
+            GameIdAllocatorImpl pooled = new GameIdAllocatorImpl(database);
+            pooled.ensureSequence();
+            allocator = pooled;
+        }
+        white = player(1);
+        black = player(2);
+    }
+
+    @TearDown
+    public void tearDown() {
+        writer.flush();
+        flusher.shutdown();
+    }
+
+    @Benchmark
+    public long createGame() {
+        return new GameServiceImpl(writer, allocator).initGame(white, black);
+    }
+
+    private static Player player(long id) {
+        Player player = new Player();
+        player.setId(id);
+        return player;
+    }
+
+    // каждое обращение стоит одну задержку сети; nextval двигает последовательность на блок
+    private static final class SimulatedDatabase extends JdbcTemplate {
+        private final long roundTripNanos;
+        private final AtomicLong sequence = new AtomicLong();
+
+        private SimulatedDatabase(int roundTripMicros) {
+            this.roundTripNanos = TimeUnit.MICROSECONDS.toNanos(roundTripMicros);
+        }
+
+        void roundTrip() {
+            LockSupport.parkNanos(roundTripNanos);
+        }
+
+        @Override
+        public void execute(String sql) {
+            roundTrip();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T queryForObject(String sql, Class<T> requiredType) {
+            roundTrip();
+            return (T) Long.valueOf(sql.contains("nextval") ? sequence.addAndGet(100) : 0);
+        }
+
+        @Override
+        public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+                                       ParameterizedPreparedStatementSetter<T> setter) {
+            roundTrip();
+            return new int[0][];
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.chess.benchmark;
+
+import com.example.chess.config.BinaryMoveConverter;
+import com.example.chess.dto.request.ChessMoveRequest;
+import com.example.chess.dto.response.MoveResponse;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.AbstractMessageConverter;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+
+// Кодирование рассылаемого хода (MoveResponse) и разбор хода клиента (ChessMoveRequest)
+// конвертером STOMP: JSON, как сейчас, против BinaryMoveConverter. Размеры тела кадра
+// печатаются при подготовке: json - ход 131 байт, запрос 55; binary - 33 и 10
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveCodecBenchmark {
+
+    @Param({"json", "binary"})
+    private String codec;
+
+    private AbstractMessageConverter converter;
+    private MessageHeaders headers;
+    private MoveResponse response;
+    private Message<?> requestFrame;
+
+    @Setup
+    public void setUp() {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+        if (codec.equals("json")) {
+            converter = new MappingJackson2MessageConverter();
+        } else {
+            converter = new BinaryMoveConverter();
+            accessor.setContentType(BinaryMoveConverter.MIME_TYPE);
+        }
+        headers = accessor.getMessageHeaders();
+        response = new MoveResponse(1042, 17, 10, 4, 1, 4, 3, null, "In process", false, false);
+
+        ChessMoveRequest request = new ChessMoveRequest();
+        request.setStartX(6);
+        request.setStartY(0);
+        request.setEndX(5);
+        request.setEndY(2);
+        request.setPlayerId(10);
+        requestFrame = converter.toMessage(request, headers);
+        System.out.printf("%s: ход %d байт, запрос %d байт%n", codec,
+                ((byte[]) converter.toMessage(response, headers).getPayload()).length,
+                ((byte[]) requestFrame.getPayload()).length);
+    }
+
+    @Benchmark
+    public Message<?> encodeMove() {
+        return converter.toMessage(response, headers);
+    }
+
+    @Benchmark
+    public Object decodeRequest() {
+        return converter.fromMessage(requestFrame, ChessMoveRequest.class);
+    }
+}
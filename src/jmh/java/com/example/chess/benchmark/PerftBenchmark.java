@@ -0,0 +1,49 @@
+package com.example.chess.benchmark;
+
+import com.example.chess.engine.Board;
+import com.example.chess.engine.Perft;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Пропускная способность генератора ходов: узлы в секунду = результат / время одной операции
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class PerftBenchmark {
+
+    @Param({"opening", "middlegame", "endgame"})
+    private String position;
+
+    @Param({"3"})
+    private int depth;
+
+    private Board board;
+
+    @Setup
+    public void setUp() {
+        board = BenchmarkPositions.create(position);
+    }
+
+    @Benchmark
+    public long perft() {
+        return Perft.perft(board, depth);
+    }
+
+    @Benchmark
+    public long parallelPerft() {
+        return Perft.parallelPerft(board, depth);
+    }
+}
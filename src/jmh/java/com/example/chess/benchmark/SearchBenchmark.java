@@ -0,0 +1,65 @@
+package com.example.chess.benchmark;
+
+import com.example.chess.engine.Board;
+import com.example.chess.search.ParallelSearch;
+import com.example.chess.search.SearchLimits;
+import com.example.chess.search.SearchResult;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Время до фиксированной глубины в зависимости от числа потоков Lazy SMP.
+// Чем меньше время до глубины, тем глубже поиск уходит за фиксированное время на ход.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Param({"opening", "middlegame"})
+    private String position;
+
+    @Param({"1", "2", "4"})
+    private int workers;
+
+    @Param({"6"})
+    private int depth;
+
+    private Board board;
+    private ParallelSearch search;
+
+    @Setup
+    public void setUp() {
+        board = BenchmarkPositions.create(position);
+        search = new ParallelSearch(workers, 64);
+    }
+
+    // без очистки следующий замер нашёл бы ответ прямо в таблице транспозиций
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        search.clearTable();
+    }
+
+    @TearDown
+    public void tearDown() {
+        search.close();
+    }
+
+    @Benchmark
+    public SearchResult searchToDepth() {
+        return search.search(board, SearchLimits.depth(depth));
+    }
+}
@@ -1,15 +1,25 @@
 package com.example.chess.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+// Режим виртуальных потоков включается spring.threads.virtual.enabled=true и работает только
+// на JDK 21+: тогда Spring Boot сам переводит на них Tomcat, а здесь на них переходят @Async
+// и почтовые ящики партий. На JDK 17 настройка ничего не меняет - остаются пулы ниже.
+// Поиск бота всегда идёт в пуле платформенных потоков: он занимает процессор, а не ждёт
 @Configuration
 @EnableAsync
 public class AsyncConfig {
 
     @Bean("taskExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
     public ThreadPoolTaskExecutor taskExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
 
@@ -21,4 +31,50 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    // по виртуальному потоку на задачу: блокирующий JDBC не держит поток ОС, а число задач
+    // в работе не упирается в размер пула
+    @Bean("taskExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualTaskExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("AsyncExecutor-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+
+    // отдельный небольшой пул для поиска бота: партии с ботом не отнимают потоки у живых игроков
+    @Bean("botExecutor")
+    public ThreadPoolTaskExecutor botExecutor(@Value("${chess.bot.threads:1}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("BotExecutor-");
+
+        executor.initialize();
+        return executor;
+    }
+
+    // общий пул, на котором разбираются почтовые ящики активных партий: по потоку на ядро,
+    // очередь без ограничения - ход, принятый от клиента, не должен отбрасываться
+    @Bean("gameExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor gameExecutor(
+            @Value("${chess.game.threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("GameExecutor-");
+
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean("gameExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public VirtualThreadTaskExecutor virtualGameExecutor() {
+        return new VirtualThreadTaskExecutor("GameExecutor-");
+    }
 }
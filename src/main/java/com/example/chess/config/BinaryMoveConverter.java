@@ -0,0 +1,117 @@
+package com.example.chess.config;
+
+import com.example.chess.dto.request.ChessMoveRequest;
+import com.example.chess.dto.response.MoveResponse;
+import com.example.chess.engine.Bitboards;
+import com.example.chess.engine.Move;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.AbstractMessageConverter;
+import org.springframework.messaging.converter.MessageConversionException;
+import org.springframework.util.MimeType;
+
+// Двоичный формат ходов для клиентов, приславших content-type MIME_TYPE; без этого заголовка
+// конвертер пропускает сообщение дальше, к JSON. Ход занимает два байта - поля from, to и
+// фигура превращения из кодировки движка (Move): from | to << 6 | превращение << 12.
+// Флаги взятия, рокировки и т.п. не передаются - их восстанавливает доска.
+//   ChessMoveRequest: ход (2) [+ playerId (8)]
+//   MoveResponse:     gameId (8), seq (4), playerId (8), ход (2), флаги (1: шах - 1, конец - 2),
+//                     статус в UTF-8 до конца кадра
+// Числа - big-endian. Тип octet-stream выбран потому, что только для него STOMP через
+// WebSocket отправляет двоичный кадр, а не текст
+public class BinaryMoveConverter extends AbstractMessageConverter {
+    public static final MimeType MIME_TYPE =
+            new MimeType("application", "octet-stream", Map.of("codec", "chess-move"));
+
+    private static final int MOVE_MASK = 0x7FFF;
+    private static final int REQUEST_BYTES = 2;
+    private static final int REQUEST_WITH_PLAYER_BYTES = 10;
+    private static final int RESPONSE_HEADER_BYTES = 23;
+    private static final int CHECK = 1;
+    private static final int FINISHED = 2;
+
+    public BinaryMoveConverter() {
+        super(MIME_TYPE);
+        setStrictContentTypeMatch(true);
+        setSerializedPayloadClass(byte[].class);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == ChessMoveRequest.class || clazz == MoveResponse.class;
+    }
+
+    @Override
+    protected Object convertFromInternal(Message<?> message, Class<?> targetClass, Object conversionHint) {
+        if (!(message.getPayload() instanceof byte[] payload)) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        try {
+            return targetClass == ChessMoveRequest.class ? readRequest(buffer) : readResponse(buffer);
+        } catch (BufferUnderflowException e) {
+            throw new MessageConversionException(message, "Двоичный кадр хода короче ожидаемого: " + payload.length);
+        }
+    }
+
+    @Override
+    protected Object convertToInternal(Object payload, MessageHeaders headers, Object conversionHint) {
+        if (payload instanceof ChessMoveRequest request) {
+            return ByteBuffer.allocate(REQUEST_WITH_PLAYER_BYTES)
+                    .putShort(move(request.getStartX(), request.getStartY(), request.getEndX(), request.getEndY(),
+                            request.getPromotion()))
+                    .putLong(request.getPlayerId())
+                    .array();
+        }
+        MoveResponse response = (MoveResponse) payload;
+        byte[] status = response.getStatus() == null ? new byte[0] : response.getStatus().getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(RESPONSE_HEADER_BYTES + status.length)
+                .putLong(response.getGameId())
+                .putInt((int) response.getSeq())
+                .putLong(response.getPlayerId())
+                .putShort(move(response.getStartX(), response.getStartY(), response.getEndX(), response.getEndY(),
+                        response.getPromotion()))
+                .put((byte) ((response.isCheck() ? CHECK : 0) | (response.isFinished() ? FINISHED : 0)))
+                .put(status)
+                .array();
+    }
+
+    private static ChessMoveRequest readRequest(ByteBuffer buffer) {
+        if (buffer.remaining() != REQUEST_BYTES && buffer.remaining() != REQUEST_WITH_PLAYER_BYTES) {
+            throw new BufferUnderflowException();
+        }
+        int move = buffer.getShort() & MOVE_MASK;
+        ChessMoveRequest request = new ChessMoveRequest();
+        request.setStartX(Bitboards.fileOf(Move.from(move)));
+        request.setStartY(Bitboards.rankOf(Move.from(move)));
+        request.setEndX(Bitboards.fileOf(Move.to(move)));
+        request.setEndY(Bitboards.rankOf(Move.to(move)));
+        request.setPromotion(Move.promotionLetter(Move.promotion(move)));
+        if (buffer.hasRemaining()) {
+            request.setPlayerId(buffer.getLong());
+        }
+        return request;
+    }
+
+    private static MoveResponse readResponse(ByteBuffer buffer) {
+        long gameId = buffer.getLong();
+        long seq = buffer.getInt();
+        long playerId = buffer.getLong();
+        int move = buffer.getShort() & MOVE_MASK;
+        int flags = buffer.get();
+        String status = new String(buffer.array(), buffer.position(), buffer.remaining(), StandardCharsets.UTF_8);
+        return new MoveResponse(gameId, seq, playerId,
+                Bitboards.fileOf(Move.from(move)), Bitboards.rankOf(Move.from(move)),
+                Bitboards.fileOf(Move.to(move)), Bitboards.rankOf(Move.to(move)),
+                Move.promotionLetter(Move.promotion(move)), status, (flags & CHECK) != 0, (flags & FINISHED) != 0);
+    }
+
+    private static short move(int startX, int startY, int endX, int endY, String promotion) {
+        return (short) Move.encode(Bitboards.square(startX, startY), Bitboards.square(endX, endY),
+                Move.promotionOf(promotion), Move.QUIET);
+    }
+}
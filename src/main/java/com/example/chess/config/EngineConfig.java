@@ -0,0 +1,52 @@
+package com.example.chess.config;
+
+import com.example.chess.search.ParallelSearch;
+import com.example.chess.tablebase.Tablebase;
+import java.io.IOException;
+import java.nio.file.Path;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class EngineConfig {
+
+    private final Logger logger = LoggerFactory.getLogger(EngineConfig.class);
+
+    // число потоков поиска ограничивает CPU, который движок занимает на одном ходу бота;
+    // таблица транспозиций общая для всех партий с ботом, ходы разных партий ищутся
+    // одновременно - сколько их идёт параллельно, задаёт chess.bot.threads
+    @Bean(name = "botSearch", destroyMethod = "close")
+    public ParallelSearch botSearch(@Value("${chess.engine.workers:1}") int workers,
+                                    @Value("${chess.engine.hash-mb:16}") int hashMegabytes,
+                                    Tablebase tablebase) {
+        return new ParallelSearch(workers, hashMegabytes, tablebase);
+    }
+
+    // анализ позиций по REST ищет отдельно: его запросы не отнимают помощников и таблицу у бота
+    @Bean(name = "analysisSearch", destroyMethod = "close")
+    public ParallelSearch analysisSearch(@Value("${chess.analysis.workers:1}") int workers,
+                                         @Value("${chess.analysis.hash-mb:16}") int hashMegabytes,
+                                         Tablebase tablebase) {
+        return new ParallelSearch(workers, hashMegabytes, tablebase);
+    }
+
+    // файл строится заранее: java ... com.example.chess.tablebase.TablebaseGenerator <файл>;
+    // без файла движок работает без таблиц
+    @Bean
+    public Tablebase tablebase(@Value("${chess.tablebase.path:}") String path) {
+        if (path.isBlank()) {
+            return Tablebase.empty();
+        }
+        try {
+            Tablebase tablebase = Tablebase.open(Path.of(path));
+            logger.info("Загружены эндшпильные таблицы {}: {}", path, tablebase.getSignatures());
+            return tablebase;
+        } catch (IOException e) {
+            logger.warn("Эндшпильные таблицы не загружены: {}", e.getMessage());
+            return Tablebase.empty();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.chess.config;
+
+import com.example.chess.journal.MoveJournal;
+import java.io.IOException;
+import java.nio.file.Path;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JournalConfig {
+
+    private final Logger logger = LoggerFactory.getLogger(JournalConfig.class);
+
+    // без каталога журнал выключен: живые партии теряются при перезапуске, как раньше
+    @Bean(destroyMethod = "close")
+    public MoveJournal moveJournal(@Value("${chess.journal.path:}") String path,
+                                   @Value("${chess.journal.segment-bytes:16777216}") long segmentBytes,
+                                   @Value("${chess.journal.flush-ms:10}") long flushMillis) {
+        if (path.isBlank()) {
+            return MoveJournal.disabled();
+        }
+        try {
+            MoveJournal journal = MoveJournal.open(Path.of(path), segmentBytes, flushMillis);
+            logger.info("Журнал ходов: {}", path);
+            return journal;
+        } catch (IOException e) {
+            logger.warn("Журнал ходов не открыт: {}", e.getMessage());
+            return MoveJournal.disabled();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.chess.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class PersistenceConfig {
+
+    // с id из последовательности вместо IDENTITY Hibernate может отправлять вставки и обновления
+    // пачками JDBC; явные настройки spring.jpa.properties.* важнее этих значений
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatching(@Value("${chess.persistence.hibernate-batch-size:50}") int batchSize) {
+        return properties -> {
+            properties.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize);
+            properties.putIfAbsent(AvailableSettings.ORDER_INSERTS, true);
+            properties.putIfAbsent(AvailableSettings.ORDER_UPDATES, true);
+        };
+    }
+}
@@ -1,8 +1,15 @@
 package com.example.chess.config;
 
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
@@ -14,10 +21,15 @@ import org.springframework.web.socket.config.annotation.WebSocketTransportRegist
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final CustomChannelInterceptor customChannelInterceptor;
+    private final boolean virtualThreads;
+    private final boolean binaryMoves;
     private static final Logger logger = LoggerFactory.getLogger(WebSocketConfig.class);
 
-    public WebSocketConfig(CustomChannelInterceptor customChannelInterceptor) {
+    public WebSocketConfig(CustomChannelInterceptor customChannelInterceptor, Environment environment,
+                           @Value("${chess.stomp.binary.enabled:false}") boolean binaryMoves) {
         this.customChannelInterceptor = customChannelInterceptor;
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+        this.binaryMoves = binaryMoves;
         logger.info("CustomChannelInterceptor инициализирован: {}", customChannelInterceptor);
     }
 
@@ -27,6 +39,37 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         config.enableSimpleBroker("/topic", "/queue");
         config.setApplicationDestinationPrefixes("/app");
         config.setUserDestinationPrefix("/user");
+        // ходы одной партии должны доходить до подписчика в том порядке, в каком рассылались
+        config.setPreservePublishOrder(true);
+    }
+
+    // в режиме виртуальных потоков входящие и исходящие STOMP-сообщения обрабатываются на них,
+    // иначе - в пулах Spring по умолчанию (по числу ядер). Перехватчик в обоих режимах
+    // запоминает игрока сессии при CONNECT - по нему GameController проверяет playerId
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(customChannelInterceptor);
+        if (virtualThreads) {
+            registration.executor(new VirtualThreadTaskExecutor("StompInbound-"));
+        }
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        if (virtualThreads) {
+            registration.executor(new VirtualThreadTaskExecutor("StompOutbound-"));
+        }
+    }
+
+    // двоичный формат ходов работает поверх чистого WebSocket: SockJS передаёт только текст.
+    // Клиент выбирает его заголовком content-type у SEND и подпиской на .../move/binary,
+    // остальные продолжают работать с JSON
+    @Override
+    public boolean configureMessageConverters(List<MessageConverter> messageConverters) {
+        if (binaryMoves) {
+            messageConverters.add(new BinaryMoveConverter());
+        }
+        return true;
     }
 
     @Override
@@ -34,6 +77,10 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.addEndpoint("/ws-chess")
                 .setAllowedOrigins("http://localhost:3000")
                 .withSockJS();
+        if (binaryMoves) {
+            registry.addEndpoint("/ws-chess-binary")
+                    .setAllowedOrigins("http://localhost:3000");
+        }
     }
 
     @Override
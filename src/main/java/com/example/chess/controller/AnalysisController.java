@@ -0,0 +1,44 @@
+package com.example.chess.controller;
+
+import com.example.chess.dto.response.AnalysisResponse;
+import com.example.chess.dto.response.BookMoveResponse;
+import com.example.chess.service.AnalysisService;
+import com.example.chess.service.OpeningBookService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@Tag(name = "Analysis Controller")
+@RestController
+@RequestMapping("/analysis")
+@AllArgsConstructor
+public class AnalysisController {
+
+    private final AnalysisService analysisService;
+    private final OpeningBookService openingBookService;
+
+    @Operation(summary = "Лучший ход в позиции: из дебютной книги или поиском")
+    @GetMapping("/best-move")
+    public ResponseEntity<AnalysisResponse> bestMove(@RequestParam String fen) {
+        return ResponseEntity.ok(analysisService.analyse(fen));
+    }
+
+    @Operation(summary = "Ходы дебютной книги для позиции")
+    @GetMapping("/book")
+    public ResponseEntity<List<BookMoveResponse>> bookMoves(@RequestParam String fen) {
+        return ResponseEntity.ok(analysisService.getBookMoves(fen));
+    }
+
+    @Operation(summary = "Перечитать дебютную книгу из chess.book.path без перезапуска")
+    @PostMapping("/book/reload")
+    public ResponseEntity<Integer> reloadBook() {
+        return ResponseEntity.ok(openingBookService.reload());
+    }
+}
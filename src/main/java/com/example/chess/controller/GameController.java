@@ -1,19 +1,92 @@
 package com.example.chess.controller;
 
 import com.example.chess.dto.request.ChessMoveRequest;
+import com.example.chess.dto.request.DrawClaimRequest;
+import com.example.chess.dto.response.GameReplayResponse;
+import com.example.chess.dto.response.GameStateResponse;
+import com.example.chess.engine.Move;
+import com.example.chess.service.GameManagerService;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import lombok.AllArgsConstructor;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Controller;
-import org.springframework.messaging.handler.annotation.SendTo;
 
 @Controller
+@AllArgsConstructor
 public class GameController {
 
-    // Принимаем сообщение о ходе от клиента и перенаправляем его на топик игры
+    private final GameManagerService gameManagerService;
+
+    // Ход клиента проверяется и применяется на сервере; принятый ход вместе со статусом партии
+    // рассылается в /topic/game/{gameId}/move, причина отказа - в /topic/{playerId}/game/{gameId}/rejected
     @MessageMapping("/game/{gameId}/move")
-    @SendTo("/topic/game/{gameId}/move")
-    public ChessMoveRequest forwardMove(@DestinationVariable String gameId, @Payload ChessMoveRequest move) {
-        return move;
+    public void forwardMove(@DestinationVariable long gameId, @Payload ChessMoveRequest move,
+                            SimpMessageHeaderAccessor headers) {
+        gameManagerService.submitMove(gameId, resolvePlayerId(move.getPlayerId(), headers),
+                move.getStartX(), move.getStartY(), move.getEndX(), move.getEndY(),
+                Move.promotionOf(move.getPromotion()));
+    }
+
+    // Требование ничьей по троекратному повторению или правилу 50 ходов: сами по себе они
+    // партию не заканчивают. Итог рассылается в /topic/game/{gameId}/finished, отказ -
+    // в /topic/{playerId}/game/{gameId}/rejected
+    @MessageMapping("/game/{gameId}/claim-draw")
+    public void claimDraw(@DestinationVariable long gameId, @Payload DrawClaimRequest claim,
+                          SimpMessageHeaderAccessor headers) {
+        gameManagerService.claimDraw(gameId, resolvePlayerId(claim.getPlayerId(), headers));
+    }
+
+    // Снимок партии приходит ответом на подписку на /app/game/{gameId}/state. Клиент сначала
+    // подписывается на ходы, затем на снимок, и применяет ходы с seq больше, чем у снимка;
+    // увидев пропуск в seq, он подписывается на снимок заново
+    @SubscribeMapping("/game/{gameId}/state")
+    public CompletableFuture<GameStateResponse> subscribeState(@DestinationVariable long gameId) {
+        return gameManagerService.getGameState(gameId);
+    }
+
+    // После обрыва соединения клиент снова подписывается на ходы, а затем на
+    // /app/game/{gameId}/replay с заголовком last-seq - номером последнего полученного хода.
+    // В ответ приходят только пропущенные ходы или, если разрыв слишком велик, снимок
+    @SubscribeMapping("/game/{gameId}/replay")
+    public CompletableFuture<GameReplayResponse> subscribeReplay(@DestinationVariable long gameId,
+                                                                 @Header("last-seq") long lastSeq) {
+        return gameManagerService.replayMoves(gameId, lastSeq);
+    }
+
+    // Отказ в праве действовать за другого игрока уходит отправителю в /user/queue/errors
+    @MessageExceptionHandler(AccessDeniedException.class)
+    @SendToUser(destinations = "/queue/errors", broadcast = false)
+    public String handleAccessDenied(AccessDeniedException e) {
+        return e.getMessage();
+    }
+
+    // игрок сессии назначается при CONNECT (CustomChannelInterceptor), и playerId из тела
+    // сообщения ему не доверяется: другой id - отказ, 0 - просто не указан. Только сессия
+    // без игрока берёт id из тела
+    private static long resolvePlayerId(long payloadPlayerId, SimpMessageHeaderAccessor headers) {
+        Map<String, Object> attributes = headers.getSessionAttributes();
+        Object sessionPlayer = attributes == null ? null : attributes.get("playerId");
+        if (sessionPlayer == null) {
+            return payloadPlayerId;
+        }
+        long playerId;
+        try {
+            playerId = Long.parseLong(sessionPlayer.toString());
+        } catch (NumberFormatException e) {
+            throw new AccessDeniedException("Сессия не связана с игроком");
+        }
+        if (payloadPlayerId != 0 && payloadPlayerId != playerId) {
+            throw new AccessDeniedException("Нельзя действовать за другого игрока");
+        }
+        return playerId;
     }
 }
@@ -2,7 +2,9 @@ package com.example.chess.controller;
 
 import com.example.chess.dto.request.GameInfoRequest;
 import com.example.chess.dto.response.GameInfoResponse;
+import com.example.chess.dto.response.LiveGamesResponse;
 import com.example.chess.service.GameInfoService;
+import com.example.chess.service.GameManagerService;
 import com.example.chess.service.VisitorCounter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -31,6 +33,7 @@ import org.springframework.web.bind.annotation.RestController;
 @AllArgsConstructor
 public class GameInfoController {
     private final GameInfoService gameInfoService;
+    private final GameManagerService gameManagerService;
     private final VisitorCounter visitorCounter;
 
     @Operation(
@@ -125,6 +128,25 @@ public class GameInfoController {
         return ResponseEntity.ok(gameInfoService.getAllGames());
     }
 
+    @Operation(
+            summary = "Get live games",
+            description = "Returns the number of games held in memory and their estimated heap usage"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+                    responseCode = "200",
+                    description = "Live games statistics retrieved successfully",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = LiveGamesResponse.class)
+                    )
+            )
+    })
+    @GetMapping("/live")
+    public ResponseEntity<LiveGamesResponse> getLiveGames() {
+        return ResponseEntity.ok(gameManagerService.getLiveGames());
+    }
+
     @Operation(
             summary = "Update game",
             description = "Updates information about a specific chess game"
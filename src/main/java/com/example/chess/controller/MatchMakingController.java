@@ -20,4 +20,10 @@ public class MatchMakingController {
         logger.info("Начало добавления пользователя в пул пользователей.");
         matchMakingService.addPlayerToQueue(playerId);
     }
+
+    @MessageMapping("{playerId}/game/play-with-bot")
+    public void playWithBot(@DestinationVariable long playerId) {
+        logger.info("Пользователь {} начинает игру с ботом.", playerId);
+        matchMakingService.playAgainstBot(playerId);
+    }
 }
@@ -10,5 +10,7 @@ public class ChessMoveRequest {
     private int startY;
     private int endX;
     private int endY;
+    // фигура превращения пешки: n, b, r или q; без неё пешка становится ферзём
+    private String promotion;
     private long playerId;
 }
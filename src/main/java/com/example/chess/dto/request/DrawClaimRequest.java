@@ -0,0 +1,10 @@
+package com.example.chess.dto.request;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class DrawClaimRequest {
+    private long playerId;
+}
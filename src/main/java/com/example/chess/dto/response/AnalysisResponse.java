@@ -0,0 +1,17 @@
+package com.example.chess.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class AnalysisResponse {
+    private String fen;
+    private String bestMove;
+    private int score;
+    private int depth;
+    private long nodes;
+    private String source;
+}
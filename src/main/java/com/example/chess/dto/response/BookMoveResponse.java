@@ -0,0 +1,13 @@
+package com.example.chess.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class BookMoveResponse {
+    private String move;
+    private int weight;
+}
@@ -0,0 +1,17 @@
+package com.example.chess.dto.response;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+// ответ переподключившемуся клиенту: пропущенные ходы по порядку либо, если их уже
+// нет в памяти, снимок партии (тогда moves пуст)
+@Getter
+@Setter
+@AllArgsConstructor
+public class GameReplayResponse {
+    private long gameId;
+    private List<MoveResponse> moves;
+    private GameStateResponse snapshot;
+}
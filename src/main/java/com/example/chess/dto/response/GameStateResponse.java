@@ -1,13 +1,20 @@
 package com.example.chess.dto.response;
 
-import com.example.chess.engine.pieces.Piece;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 
+// полный снимок партии в FEN: отправляется подписчику при подписке и при пропуске хода.
+// seq - номер последнего хода в снимке, ходы с seq не больше него клиент отбрасывает
 @Getter
 @Setter
+@AllArgsConstructor
 public class GameStateResponse {
-    public final Piece[][] board;
-    public final String status;
-    public final String currentTurnColor;
+    private long gameId;
+    private long seq;
+    private String fen;
+    private String status;
+    private String currentTurnColor;
+    private boolean check;
+    private boolean finished;
 }
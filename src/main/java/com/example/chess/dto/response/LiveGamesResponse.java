@@ -0,0 +1,15 @@
+package com.example.chess.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class LiveGamesResponse {
+    private int activeGames;
+    private int botGames;
+    private long evictedGames;
+    private long estimatedBytes;
+}
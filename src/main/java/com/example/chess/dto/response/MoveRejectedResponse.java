@@ -0,0 +1,17 @@
+package com.example.chess.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class MoveRejectedResponse {
+    private long gameId;
+    private int startX;
+    private int startY;
+    private int endX;
+    private int endY;
+    private String reason;
+}
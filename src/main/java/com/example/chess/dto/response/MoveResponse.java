@@ -0,0 +1,25 @@
+package com.example.chess.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+// принятый сервером ход и состояние партии после него; playerId = 0 - ход бота.
+// seq - номер хода в партии, начиная с 1: разрыв в номерах значит, что ход пропущен.
+// promotion - буква фигуры превращения (n, b, r, q), null - превращения нет
+@Getter
+@Setter
+@AllArgsConstructor
+public class MoveResponse {
+    private long gameId;
+    private long seq;
+    private long playerId;
+    private int startX;
+    private int startY;
+    private int endX;
+    private int endY;
+    private String promotion;
+    private String status;
+    private boolean check;
+    private boolean finished;
+}
@@ -6,43 +6,156 @@ import com.example.chess.engine.pieces.Horse;
 import com.example.chess.engine.pieces.King;
 import com.example.chess.engine.pieces.Pawn;
 import com.example.chess.engine.pieces.Piece;
+import com.example.chess.engine.pieces.PieceType;
 import com.example.chess.engine.pieces.Queen;
 import com.example.chess.engine.pieces.Rook;
-import com.example.chess.entity.Player;
 import com.example.chess.exception.game.IllegalMove;
-import java.util.List;
+import java.util.Arrays;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
 @Getter
 @Setter
 public class Board {
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+
+    // какие права на рокировку остаются после хода с/на клетку
+    private static final int[] CASTLING_MASK = new int[64];
+    private static final int INITIAL_UNDO_CAPACITY = 128;
+    // повторения ищутся только после последнего взятия или хода пешкой, а через 150 таких
+    // полуходов партия закончена правилом 75 ходов - старые ключи не нужны
+    private static final int HISTORY_SIZE = 256;
+
+    static {
+        Arrays.fill(CASTLING_MASK, 0xF);
+        CASTLING_MASK[0] &= ~WHITE_QUEENSIDE;
+        CASTLING_MASK[4] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_MASK[7] &= ~WHITE_KINGSIDE;
+        CASTLING_MASK[56] &= ~BLACK_QUEENSIDE;
+        CASTLING_MASK[60] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_MASK[63] &= ~BLACK_KINGSIDE;
+    }
+
     private long id;
     private KingTracker kingTracker;
+    @Setter(AccessLevel.NONE)
     private Piece[][] field;
     private boolean isWhiteToMove;
+    private int castlingRights;
+    private int enPassantSquare = -1;
+    // полуходы без взятий и ходов пешкой (правило 50 ходов) и номер хода, как в FEN
+    private int halfmoveClock;
+    private int fullmoveNumber = 1;
+
+    // битборды по фигурам: индекс = color * 6 + type, плюс занятость по цветам и общая
+    @Getter(AccessLevel.NONE)
+    private final long[] pieceBitboards = new long[12];
+    @Getter(AccessLevel.NONE)
+    private final long[] colorOccupancy = new long[2];
+    @Setter(AccessLevel.NONE)
+    private long occupied;
+
+    // ключ Зобриста, обновляется XOR-ом при каждом изменении позиции
+    @Setter(AccessLevel.NONE)
+    private long zobristKey;
+
+    // материал + "фигура-клетка" в пользу белых для миттельшпиля и эндшпиля и фаза партии,
+    // обновляются при каждой постановке и снятии фигуры (см. PieceSquareTables)
+    @Setter(AccessLevel.NONE)
+    private int middlegameScore;
+    @Setter(AccessLevel.NONE)
+    private int endgameScore;
+    @Setter(AccessLevel.NONE)
+    private int phase;
+
+    // кольцо ключей позиций перед каждым ходом - для поиска повторений
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final long[] history = new long[HISTORY_SIZE];
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private int historySize;
+
+    // последний ход, принятый tryMove (makeMove из поиска его не трогает) - для журнала ходов
+    @Setter(AccessLevel.NONE)
+    private int lastMove = Move.NONE;
+
+    // стек отката для makeMove/unmakeMove, растёт по мере надобности
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Piece[] undoMoved = new Piece[INITIAL_UNDO_CAPACITY];
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Piece[] undoCaptured = new Piece[INITIAL_UNDO_CAPACITY];
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private int[] undoState = new int[INITIAL_UNDO_CAPACITY];
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long[] undoKey = new long[INITIAL_UNDO_CAPACITY];
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private int undoSize;
 
     public Board() {
+        this(true);
+    }
+
+    private Board(boolean initialPosition) {
         field = new Piece[8][8];
         isWhiteToMove = true;
-        initializeBoard();
-        kingTracker = new KingTracker((King) field[4][0], (King) field[4][7]);
+        zobristKey = Zobrist.castling(castlingRights);
+        if (initialPosition) {
+            setCastlingRights(WHITE_KINGSIDE | WHITE_QUEENSIDE | BLACK_KINGSIDE | BLACK_QUEENSIDE);
+            initializeBoard();
+        }
+        trackKings();
     }
 
     public Board(Board board) {
-
+        this.id = board.id;
         this.isWhiteToMove = board.isWhiteToMove;
-
+        this.castlingRights = board.castlingRights;
+        this.enPassantSquare = board.enPassantSquare;
+        this.halfmoveClock = board.halfmoveClock;
+        this.fullmoveNumber = board.fullmoveNumber;
+        this.field = new Piece[8][8];
         for (int x = 0; x < 8; x++) {
             for (int y = 0; y < 8; y++) {
-                Piece piece = this.field[x][y].copy();
-                if (piece != null) {
-                    this.setPieceAt(x, y, piece.copy());
-                } else {
-                    this.setPieceAt(x, y, null);
-                }
+                Piece piece = board.field[x][y];
+                this.field[x][y] = piece == null ? null : piece.copy();
             }
         }
+
+        System.arraycopy(board.pieceBitboards, 0, this.pieceBitboards, 0, pieceBitboards.length);
+        System.arraycopy(board.colorOccupancy, 0, this.colorOccupancy, 0, colorOccupancy.length);
+        this.occupied = board.occupied;
+        this.zobristKey = board.zobristKey;
+        this.middlegameScore = board.middlegameScore;
+        this.endgameScore = board.endgameScore;
+        this.phase = board.phase;
+        System.arraycopy(board.history, 0, this.history, 0, HISTORY_SIZE);
+        this.historySize = board.historySize;
+        this.lastMove = board.lastMove;
+        trackKings();
+    }
+
+    // пустая доска без прав на рокировку - основа для загрузки позиции (Fen, PositionCodec)
+    static Board empty() {
+        return new Board(false);
+    }
+
+    // после расстановки фигур извне короли ищутся по битбордам
+    void trackKings() {
+        long white = getPieces(Color.WHITE, PieceType.KING);
+        long black = getPieces(Color.BLACK, PieceType.KING);
+        kingTracker = new KingTracker(
+                white == 0 ? null : (King) getPieceAt(Long.numberOfTrailingZeros(white)),
+                black == 0 ? null : (King) getPieceAt(Long.numberOfTrailingZeros(black)));
     }
 
     public Piece getPieceAt(int x, int y) {
@@ -52,77 +165,314 @@ public class Board {
         return field[x][y];
     }
 
+    public Piece getPieceAt(int square) {
+        return field[Bitboards.fileOf(square)][Bitboards.rankOf(square)];
+    }
+
     public void setPieceAt(int x, int y, Piece piece) {
         if (x < 0 || x >= 8 || y < 0 || y >= 8) {
             throw new IllegalArgumentException("Coordinates are out of bounds");
         }
+
+        int square = Bitboards.square(x, y);
+        Piece old = field[x][y];
+        if (old != null) {
+            togglePiece(old.getColor(), old.getType(), square);
+            updateScore(old.getColor(), old.getType(), square, -1);
+        }
         field[x][y] = piece;
+        if (piece != null) {
+            togglePiece(piece.getColor(), piece.getType(), square);
+            updateScore(piece.getColor(), piece.getType(), square, 1);
+        }
+    }
+
+    public long getPieces(Color color, PieceType type) {
+        return pieceBitboards[color.ordinal() * 6 + type.ordinal()];
+    }
+
+    public long getOccupancy(Color color) {
+        return colorOccupancy[color.ordinal()];
+    }
+
+    public void setWhiteToMove(boolean whiteToMove) {
+        if (this.isWhiteToMove != whiteToMove) {
+            changeMove();
+        }
+    }
+
+    public void setCastlingRights(int castlingRights) {
+        zobristKey ^= Zobrist.castling(this.castlingRights) ^ Zobrist.castling(castlingRights);
+        this.castlingRights = castlingRights;
+    }
+
+    public void setEnPassantSquare(int enPassantSquare) {
+        zobristKey ^= Zobrist.enPassant(this.enPassantSquare) ^ Zobrist.enPassant(enPassantSquare);
+        this.enPassantSquare = enPassantSquare;
+    }
+
+    private void togglePiece(Color color, PieceType type, int square) {
+        long mask = Bitboards.bit(square);
+        pieceBitboards[color.ordinal() * 6 + type.ordinal()] ^= mask;
+        colorOccupancy[color.ordinal()] ^= mask;
+        occupied ^= mask;
+        zobristKey ^= Zobrist.piece(color, type, square);
+    }
+
+    private void updateScore(Color color, PieceType type, int square, int sign) {
+        middlegameScore += sign * PieceSquareTables.middlegame(color, type, square);
+        endgameScore += sign * PieceSquareTables.endgame(color, type, square);
+        phase += sign * PieceSquareTables.phase(type);
     }
 
     private void initializeBoard() {
         // Расстановка белых фигур
-        field[0][0] = new Rook(Color.WHITE, 0, 0);   // Ладья
-        field[1][0] = new Horse(Color.WHITE, 1, 0); // Конь
-        field[2][0] = new Bishop(Color.WHITE, 2, 0); // Слон
-        field[3][0] = new Queen(Color.WHITE, 3, 0);  // Ферзь
-        field[4][0] = new King(Color.WHITE, 4, 0);   // Король
-        field[5][0] = new Bishop(Color.WHITE, 5, 0); // Слон
-        field[6][0] = new Horse(Color.WHITE, 6, 0); // Конь
-        field[7][0] = new Rook(Color.WHITE, 7, 0);   // Ладья
+        setPieceAt(0, 0, new Rook(Color.WHITE, 0, 0));   // Ладья
+        setPieceAt(1, 0, new Horse(Color.WHITE, 1, 0)); // Конь
+        setPieceAt(2, 0, new Bishop(Color.WHITE, 2, 0)); // Слон
+        setPieceAt(3, 0, new Queen(Color.WHITE, 3, 0));  // Ферзь
+        setPieceAt(4, 0, new King(Color.WHITE, 4, 0));   // Король
+        setPieceAt(5, 0, new Bishop(Color.WHITE, 5, 0)); // Слон
+        setPieceAt(6, 0, new Horse(Color.WHITE, 6, 0)); // Конь
+        setPieceAt(7, 0, new Rook(Color.WHITE, 7, 0));   // Ладья
 
         // Расстановка белых пешек
         for (int i = 0; i < 8; i++) {
-            field[i][1] = new Pawn(Color.WHITE, i, 1);
+            setPieceAt(i, 1, new Pawn(Color.WHITE, i, 1));
         }
 
         // Расстановка черных фигур
-        field[0][7] = new Rook(Color.BLACK, 0, 7);   // Ладья
-        field[1][7] = new Horse(Color.BLACK, 1, 7); // Конь
-        field[2][7] = new Bishop(Color.BLACK, 2, 7); // Слон
-        field[3][7] = new Queen(Color.BLACK, 3, 7);  // Ферзь
-        field[4][7] = new King(Color.BLACK, 4, 7);   // Король
-        field[5][7] = new Bishop(Color.BLACK, 5, 7); // Слон
-        field[6][7] = new Horse(Color.BLACK, 6, 7); // Конь
-        field[7][7] = new Rook(Color.BLACK, 7, 7);   // Ладья
+        setPieceAt(0, 7, new Rook(Color.BLACK, 0, 7));   // Ладья
+        setPieceAt(1, 7, new Horse(Color.BLACK, 1, 7)); // Конь
+        setPieceAt(2, 7, new Bishop(Color.BLACK, 2, 7)); // Слон
+        setPieceAt(3, 7, new Queen(Color.BLACK, 3, 7));  // Ферзь
+        setPieceAt(4, 7, new King(Color.BLACK, 4, 7));   // Король
+        setPieceAt(5, 7, new Bishop(Color.BLACK, 5, 7)); // Слон
+        setPieceAt(6, 7, new Horse(Color.BLACK, 6, 7)); // Конь
+        setPieceAt(7, 7, new Rook(Color.BLACK, 7, 7));   // Ладья
 
         // Расстановка черных пешек
         for (int i = 0; i < 8; i++) {
-            field[i][6] = new Pawn(Color.BLACK, i, 6);
+            setPieceAt(i, 6, new Pawn(Color.BLACK, i, 6));
         }
     }
 
     public void changeMove() {
         isWhiteToMove = !isWhiteToMove;
+        zobristKey ^= Zobrist.blackToMove();
     }
 
     public King getKing(Color color) {
         return color == Color.WHITE ? kingTracker.getWhiteKing() : kingTracker.getBlackKing();
     }
 
+    // ход проверяется генератором легальных ходов; превращение пешки - в ферзя
     public void movePiece(Piece piece, int endX, int endY) throws IllegalMove {
-        if (!this.isWhiteToMove() && piece.getColor() != Color.BLACK
-                || this.isWhiteToMove() && piece.getColor() != Color.WHITE) {
+        if (!tryMove(piece, endX, endY).isOk()) {
             throw new IllegalMove();
         }
+    }
 
-        if (GameAnalyzer.isPiecePinned(piece, this)) {
+    // упакованный ход (например, от движка) проверяется по списку легальных ходов
+    public void playMove(int move) throws IllegalMove {
+        if (!tryMove(move).isOk()) {
             throw new IllegalMove();
         }
+    }
+
+    // то же, что movePiece, но без исключений: отклонённый ход стоит столько же, сколько принятый,
+    // а причина отказа возвращается вызывающему
+    public MoveResult tryMove(int startX, int startY, int endX, int endY) {
+        return tryMove(startX, startY, endX, endY, PieceType.QUEEN);
+    }
+
+    // promotion - фигура, в которую превращается пешка на последней горизонтали; null - ферзь
+    public MoveResult tryMove(int startX, int startY, int endX, int endY, PieceType promotion) {
+        if (startX < 0 || startX >= 8 || startY < 0 || startY >= 8) {
+            return MoveResult.OUT_OF_BOARD;
+        }
+        Piece piece = field[startX][startY];
+        return piece == null ? MoveResult.NO_PIECE : tryMove(piece, endX, endY, promotion);
+    }
 
-        if (this.getPieceAt(endX, endY) == null) {
-            if (!piece.isLegalMove(endX, endY, this)) {
-                throw new IllegalMove();
+    public MoveResult tryMove(Piece piece, int endX, int endY) {
+        return tryMove(piece, endX, endY, PieceType.QUEEN);
+    }
+
+    public MoveResult tryMove(Piece piece, int endX, int endY, PieceType promotion) {
+        if (piece.getColor() != (isWhiteToMove ? Color.WHITE : Color.BLACK)) {
+            return MoveResult.NOT_YOUR_TURN;
+        }
+        if (endX < 0 || endX >= 8 || endY < 0 || endY >= 8) {
+            return MoveResult.OUT_OF_BOARD;
+        }
+
+        int to = Bitboards.square(endX, endY);
+        MoveList moves = MoveGenerator.generateLegalMoves(this, piece);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (Move.to(move) == to
+                    && (!Move.isPromotion(move)
+                        || Move.promotion(move) == (promotion == null ? PieceType.QUEEN : promotion))) {
+                piece.moveDone(endX, endY);
+                makeMove(move);
+                lastMove = move;
+                return MoveResult.OK;
             }
-        } else {
-            if (!piece.isLegalCapture(this.getPieceAt(endX, endY), this)) {
-                throw new IllegalMove();
+        }
+        return MoveValidator.diagnose(this, piece, to, moves);
+    }
+
+    public MoveResult tryMove(int move) {
+        Piece piece = getPieceAt(Move.from(move));
+        if (piece == null) {
+            return MoveResult.NO_PIECE;
+        }
+        if (piece.getColor() != (isWhiteToMove ? Color.WHITE : Color.BLACK)) {
+            return MoveResult.NOT_YOUR_TURN;
+        }
+        MoveList moves = MoveGenerator.generateLegalMoves(this, piece);
+        if (!moves.contains(move)) {
+            return MoveValidator.diagnose(this, piece, Move.to(move), moves);
+        }
+        piece.moveDone(Bitboards.fileOf(Move.to(move)), Bitboards.rankOf(Move.to(move)));
+        makeMove(move);
+        lastMove = move;
+        return MoveResult.OK;
+    }
+
+    // применяет ход без проверки легальности и передаёт очередь хода;
+    // состояние для отката кладётся в стек, откат - unmakeMove
+    public void makeMove(int move) {
+        int fromX = Bitboards.fileOf(Move.from(move));
+        int fromY = Bitboards.rankOf(Move.from(move));
+        int toX = Bitboards.fileOf(Move.to(move));
+        int toY = Bitboards.rankOf(Move.to(move));
+        Piece piece = field[fromX][fromY];
+        Piece captured = Move.isEnPassant(move) ? field[toX][fromY] : field[toX][toY];
+        boolean resetsClock = piece.getType() == PieceType.PAWN || captured != null;
+
+        if (undoSize == undoMoved.length) {
+            growUndoStack();
+        }
+        undoMoved[undoSize] = piece;
+        undoCaptured[undoSize] = captured;
+        undoState[undoSize] = castlingRights | (enPassantSquare + 1) << 4 | halfmoveClock << 11;
+        undoKey[undoSize] = zobristKey;
+        undoSize++;
+        history[historySize++ & (HISTORY_SIZE - 1)] = zobristKey;
+
+        if (Move.isEnPassant(move)) {
+            setPieceAt(toX, fromY, null);
+        }
+        if (Move.isCastling(move)) {
+            moveRook(toX == 6 ? 7 : 0, toX == 6 ? 5 : 3, fromY);
+        }
+
+        setPieceAt(fromX, fromY, null);
+        if (Move.isPromotion(move)) {
+            piece = createPiece(Move.promotion(move), piece.getColor(), toX, toY);
+        }
+        setPieceAt(toX, toY, piece);
+        piece.setCoordX(toX);
+        piece.setCoordY(toY);
+
+        setCastlingRights(castlingRights
+                & CASTLING_MASK[Move.from(move)] & CASTLING_MASK[Move.to(move)]);
+        setEnPassantSquare(Move.isDoublePush(move) ? (Move.from(move) + Move.to(move)) / 2 : -1);
+        halfmoveClock = resetsClock ? 0 : halfmoveClock + 1;
+        if (!isWhiteToMove) {
+            fullmoveNumber++;
+        }
+        changeMove();
+    }
+
+    // откатывает последний ход, сделанный makeMove
+    public void unmakeMove(int move) {
+        undoSize--;
+        Piece piece = undoMoved[undoSize];
+        Piece captured = undoCaptured[undoSize];
+        int state = undoState[undoSize];
+        undoMoved[undoSize] = null;
+        undoCaptured[undoSize] = null;
+
+        int fromX = Bitboards.fileOf(Move.from(move));
+        int fromY = Bitboards.rankOf(Move.from(move));
+        int toX = Bitboards.fileOf(Move.to(move));
+        int toY = Bitboards.rankOf(Move.to(move));
+
+        setPieceAt(toX, toY, null);
+        setPieceAt(fromX, fromY, piece);
+        piece.setCoordX(fromX);
+        piece.setCoordY(fromY);
+
+        if (captured != null) {
+            setPieceAt(captured.getCoordX(), captured.getCoordY(), captured);
+        }
+        if (Move.isCastling(move)) {
+            moveRook(toX == 6 ? 5 : 3, toX == 6 ? 7 : 0, fromY);
+        }
+
+        castlingRights = state & 0xF;
+        enPassantSquare = ((state >>> 4) & 0x7F) - 1;
+        halfmoveClock = state >>> 11;
+        isWhiteToMove = !isWhiteToMove;
+        if (!isWhiteToMove) {
+            fullmoveNumber--;
+        }
+        zobristKey = undoKey[undoSize];
+        historySize--;
+    }
+
+    // сколько раз текущая позиция уже встречалась; сравниваются только позиции с той же
+    // очередью хода после последнего необратимого хода, поэтому не больше 75 сравнений
+    public int repetitionCount() {
+        int limit = Math.min(halfmoveClock, Math.min(historySize, HISTORY_SIZE));
+        int count = 0;
+        for (int back = 2; back <= limit; back += 2) {
+            if (history[(historySize - back) & (HISTORY_SIZE - 1)] == zobristKey) {
+                count++;
             }
         }
+        return count;
+    }
+
+    private void moveRook(int fromX, int toX, int y) {
+        Piece rook = field[fromX][y];
+        setPieceAt(fromX, y, null);
+        setPieceAt(toX, y, rook);
+        rook.setCoordX(toX);
+    }
+
+    // примерный объём доски в куче (сжатые ссылки, заголовок объекта 12 байт): сама доска
+    // с массивами фиксированного размера, фигуры на доске и стек отката, который растёт с партией
+    public long estimatedBytes() {
+        long fixed = 128                         // поля доски и KingTracker
+                + 48 + 8 * (16 + 8 * 4)          // field
+                + 16 + 12 * 8 + 16 + 2 * 8       // битборды
+                + 16 + HISTORY_SIZE * 8;         // кольцо повторений
+        long pieces = Long.bitCount(occupied) * 24L;
+        long undo = 4 * 16 + undoMoved.length * (4L + 4 + 4 + 8);
+        return fixed + pieces + undo;
+    }
+
+    private void growUndoStack() {
+        int capacity = undoMoved.length * 2;
+        undoMoved = Arrays.copyOf(undoMoved, capacity);
+        undoCaptured = Arrays.copyOf(undoCaptured, capacity);
+        undoState = Arrays.copyOf(undoState, capacity);
+        undoKey = Arrays.copyOf(undoKey, capacity);
+    }
 
-        this.setPieceAt(endX, endY, piece);
-        this.setPieceAt(piece.getCoordX(), piece.getCoordY(), null);
-        piece.setCoordX(endX);
-        piece.setCoordY(endY);
+    static Piece createPiece(PieceType type, Color color, int x, int y) {
+        return switch (type) {
+            case PAWN -> new Pawn(color, x, y);
+            case HORSE -> new Horse(color, x, y);
+            case BISHOP -> new Bishop(color, x, y);
+            case ROOK -> new Rook(color, x, y);
+            case QUEEN -> new Queen(color, x, y);
+            case KING -> new King(color, x, y);
+        };
     }
 
     public String toAnnotation(int x, int y) {
@@ -0,0 +1,191 @@
+package com.example.chess.engine;
+
+import com.example.chess.engine.pieces.Color;
+import com.example.chess.engine.pieces.Pawn;
+import com.example.chess.engine.pieces.Piece;
+import com.example.chess.engine.pieces.PieceType;
+
+// Чтение и запись позиции в нотации Форсайта-Эдвардса (FEN)
+public final class Fen {
+    public static final String START_POSITION =
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final String PIECE_LETTERS = "pnbrqk";
+
+    private Fen() {
+        throw new UnsupportedOperationException("Utility class should not be instantiated");
+    }
+
+    public static Board parse(String fen) {
+        String[] parts = fen.trim().split("\\s+");
+        if (parts.length < 4) {
+            throw new IllegalArgumentException("Invalid FEN: " + fen);
+        }
+
+        Board board = Board.empty();
+        int[] kings = new int[2];
+        int x = 0;
+        int y = 7;
+        for (int i = 0; i < parts[0].length(); i++) {
+            char c = parts[0].charAt(i);
+            if (c == '/') {
+                // каждая горизонталь - ровно 8 клеток, горизонталей ровно 8
+                if (x != 8 || y == 0) {
+                    throw new IllegalArgumentException("Invalid FEN: " + fen);
+                }
+                x = 0;
+                y--;
+            } else if (c >= '1' && c <= '8') {
+                x += c - '0';
+                if (x > 8) {
+                    throw new IllegalArgumentException("Invalid FEN: " + fen);
+                }
+            } else {
+                int typeIndex = PIECE_LETTERS.indexOf(Character.toLowerCase(c));
+                if (typeIndex < 0 || x > 7) {
+                    throw new IllegalArgumentException("Invalid FEN: " + fen);
+                }
+                PieceType type = PieceType.values()[typeIndex];
+                Color color = Character.isUpperCase(c) ? Color.WHITE : Color.BLACK;
+                if (type == PieceType.PAWN && (y == 0 || y == 7)) {
+                    throw new IllegalArgumentException("Pawn on the first or last rank: " + fen);
+                }
+                if (type == PieceType.KING) {
+                    kings[color.ordinal()]++;
+                }
+                board.setPieceAt(x, y, createPiece(type, color, x, y));
+                x++;
+            }
+        }
+        if (x != 8 || y != 0) {
+            throw new IllegalArgumentException("Invalid FEN: " + fen);
+        }
+        if (kings[Color.WHITE.ordinal()] != 1 || kings[Color.BLACK.ordinal()] != 1) {
+            throw new IllegalArgumentException("Each side must have exactly one king: " + fen);
+        }
+        board.trackKings();
+
+        board.setWhiteToMove(!"b".equals(parts[1]));
+        board.setCastlingRights(parseCastling(board, parts[2]));
+        board.setEnPassantSquare("-".equals(parts[3]) ? -1 : parseEnPassant(board, parts[3]));
+        if (parts.length >= 6) {
+            board.setHalfmoveClock(Integer.parseInt(parts[4]));
+            board.setFullmoveNumber(Integer.parseInt(parts[5]));
+        }
+        return board;
+    }
+
+    public static String toFen(Board board) {
+        StringBuilder fen = new StringBuilder(90);
+        for (int y = 7; y >= 0; y--) {
+            int empty = 0;
+            for (int x = 0; x < 8; x++) {
+                Piece piece = board.getPieceAt(x, y);
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append(empty);
+                    empty = 0;
+                }
+                fen.append(pieceLetter(piece.getColor(), piece.getType()));
+            }
+            if (empty > 0) {
+                fen.append(empty);
+            }
+            if (y > 0) {
+                fen.append('/');
+            }
+        }
+
+        fen.append(board.isWhiteToMove() ? " w " : " b ");
+        int rights = board.getCastlingRights();
+        if (rights == 0) {
+            fen.append('-');
+        } else {
+            appendIf(fen, rights, Board.WHITE_KINGSIDE, 'K');
+            appendIf(fen, rights, Board.WHITE_QUEENSIDE, 'Q');
+            appendIf(fen, rights, Board.BLACK_KINGSIDE, 'k');
+            appendIf(fen, rights, Board.BLACK_QUEENSIDE, 'q');
+        }
+
+        int enPassant = board.getEnPassantSquare();
+        fen.append(' ');
+        if (enPassant < 0) {
+            fen.append('-');
+        } else {
+            fen.append((char) ('a' + Bitboards.fileOf(enPassant))).append(Bitboards.rankOf(enPassant) + 1);
+        }
+        return fen.append(' ').append(board.getHalfmoveClock())
+                .append(' ').append(board.getFullmoveNumber())
+                .toString();
+    }
+
+    public static char pieceLetter(Color color, PieceType type) {
+        char letter = PIECE_LETTERS.charAt(type.ordinal());
+        return color == Color.WHITE ? Character.toUpperCase(letter) : letter;
+    }
+
+    // пешка не на стартовой горизонтали уже не может сделать двойной ход
+    static Piece createPiece(PieceType type, Color color, int x, int y) {
+        Piece piece = Board.createPiece(type, color, x, y);
+        if (piece instanceof Pawn pawn) {
+            pawn.setFirstMove(y == (color == Color.WHITE ? 1 : 6));
+        }
+        return piece;
+    }
+
+    // право на рокировку принимается, только если король и ладья стоят на исходных клетках:
+    // иначе генератор ходов искал бы несуществующую ладью
+    private static int parseCastling(Board board, String castling) {
+        if ("-".equals(castling)) {
+            return 0;
+        }
+        int rights = 0;
+        for (int i = 0; i < castling.length(); i++) {
+            char c = castling.charAt(i);
+            Color color = Character.isUpperCase(c) ? Color.WHITE : Color.BLACK;
+            int y = color == Color.WHITE ? 0 : 7;
+            int rookX = switch (Character.toLowerCase(c)) {
+                case 'k' -> 7;
+                case 'q' -> 0;
+                default -> throw new IllegalArgumentException("Invalid castling rights: " + castling);
+            };
+            if (!isPieceAt(board, 4, y, PieceType.KING, color) || !isPieceAt(board, rookX, y, PieceType.ROOK, color)) {
+                throw new IllegalArgumentException("Castling right without king and rook at home: " + castling);
+            }
+            rights |= switch (c) {
+                case 'K' -> Board.WHITE_KINGSIDE;
+                case 'Q' -> Board.WHITE_QUEENSIDE;
+                case 'k' -> Board.BLACK_KINGSIDE;
+                default -> Board.BLACK_QUEENSIDE;
+            };
+        }
+        return rights;
+    }
+
+    // клетка взятия на проходе - на 6-й горизонтали, если ходят белые, и на 3-й, если чёрные
+    private static int parseEnPassant(Board board, String square) {
+        if (square.length() != 2) {
+            throw new IllegalArgumentException("Invalid square: " + square);
+        }
+        int x = square.charAt(0) - 'a';
+        int y = square.charAt(1) - '1';
+        if (x < 0 || x > 7 || y != (board.isWhiteToMove() ? 5 : 2)) {
+            throw new IllegalArgumentException("Invalid en passant square: " + square);
+        }
+        return Bitboards.square(x, y);
+    }
+
+    private static boolean isPieceAt(Board board, int x, int y, PieceType type, Color color) {
+        Piece piece = board.getPieceAt(x, y);
+        return piece != null && piece.getType() == type && piece.getColor() == color;
+    }
+
+    private static void appendIf(StringBuilder fen, int rights, int right, char letter) {
+        if ((rights & right) != 0) {
+            fen.append(letter);
+        }
+    }
+}
@@ -1,9 +1,9 @@
 package com.example.chess.engine;
 
 import com.example.chess.engine.pieces.Color;
-import com.example.chess.engine.pieces.King;
 import com.example.chess.engine.pieces.Piece;
-import java.util.List;
+import com.example.chess.engine.pieces.PieceType;
+import com.example.chess.tablebase.Tablebase;
 
 public final class GameAnalyzer {
 
@@ -12,49 +12,69 @@ public final class GameAnalyzer {
     }
 
     public static boolean isCheck(Color color, Board board) {
-        King king = board.getKing(color);
-        if (king == null) {
-            return false;
-        }
+        long king = board.getPieces(color, PieceType.KING);
+        return king != 0
+                && isSquareAttacked(Long.numberOfTrailingZeros(king), color.opposite(), board);
+    }
 
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                Piece piece = board.getPieceAt(i, j);
-                if (piece != null && piece.isLegalCapture(king, board)) {
-                    return true;
-                }
-            }
-        }
-        return false;
+    public static boolean isSquareAttacked(int square, Color byColor, Board board) {
+        return isSquareAttacked(square, byColor, board, board.getOccupied());
+    }
+
+    // атаки ищутся в обратную сторону: из клетки фигурой каждого типа по таблицам
+    public static boolean isSquareAttacked(int square, Color byColor, Board board, long occupied) {
+        long queens = board.getPieces(byColor, PieceType.QUEEN);
+        return (Bitboards.pawnAttacks(byColor.opposite(), square)
+                    & board.getPieces(byColor, PieceType.PAWN)) != 0
+                || (Bitboards.knightAttacks(square) & board.getPieces(byColor, PieceType.HORSE)) != 0
+                || (Bitboards.kingAttacks(square) & board.getPieces(byColor, PieceType.KING)) != 0
+                || (Bitboards.bishopAttacks(square, occupied)
+                    & (board.getPieces(byColor, PieceType.BISHOP) | queens)) != 0
+                || (Bitboards.rookAttacks(square, occupied)
+                    & (board.getPieces(byColor, PieceType.ROOK) | queens)) != 0;
     }
 
     public static boolean isMate(Color color, Board board) {
-        if (!isCheck(color, board)) {
+        return isCheck(color, board) && MoveGenerator.generateLegalMoves(board, color).isEmpty();
+    }
+
+    // связка: если убрать фигуру из занятости, король оказывается под ударом
+    public static boolean isPiecePinned(Piece piece, Board board) {
+        long king = board.getPieces(piece.getColor(), PieceType.KING);
+        if (king == 0 || piece.getType() == PieceType.KING) {
             return false;
         }
+        long occupied = board.getOccupied() & ~Bitboards.bit(piece.getSquare());
+        return isSquareAttacked(Long.numberOfTrailingZeros(king), piece.getColor().opposite(),
+                board, occupied);
+    }
 
-        King king = board.getKing(color);
-        Allocation kingAllocation = new Allocation(king);
-        return !kingAllocation.hasAnyMoves(board);
+    public static boolean isStalemate(Color color, Board board) {
+        return !isCheck(color, board) && MoveGenerator.generateLegalMoves(board, color).isEmpty();
     }
 
-    public static boolean isPiecePinned(Piece piece, Board board) {
-        Board copyBoard = new Board(board);
-        copyBoard.setPieceAt(piece.getCoordX(), piece.getCoordY(), null);
-        return GameAnalyzer.isCheck(piece.getColor(), copyBoard);
+    // позиция повторилась в третий раз
+    public static boolean isThreefoldRepetition(Board board) {
+        return board.repetitionCount() >= 2;
     }
 
-    public static boolean isStalemate(Color color, Board board) {
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                if (board.getPieceAt(i, j).getColor() == color) {
-                    Allocation allocation = new Allocation(board.getPieceAt(i, j));
-                    if (allocation.hasAnyMoves(board)) {
-                        return false;
-                    }
-                }
-            }
-        }
-        return true;
+    // позиция повторилась в пятый раз - ничья наступает автоматически, без требования игрока
+    public static boolean isFivefoldRepetition(Board board) {
+        return board.repetitionCount() >= 4;
+    }
+
+    // 50 ходов (100 полуходов) без взятий и ходов пешкой
+    public static boolean isFiftyMoveRule(Board board) {
+        return board.getHalfmoveClock() >= 100;
+    }
+
+    // 75 ходов - ничья наступает автоматически, без требования игрока
+    public static boolean isSeventyFiveMoveRule(Board board) {
+        return board.getHalfmoveClock() >= 150;
+    }
+
+    // теоретическая ничья по эндшпильным таблицам: партию можно завершать, не доигрывая
+    public static boolean isTablebaseDraw(Board board, Tablebase tablebase) {
+        return tablebase.probe(board) == Tablebase.DRAW;
     }
 }
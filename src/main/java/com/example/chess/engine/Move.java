@@ -0,0 +1,108 @@
+package com.example.chess.engine;
+
+import com.example.chess.engine.pieces.PieceType;
+
+// Ход упакован в int: биты 0-5 - откуда, 6-11 - куда, 12-14 - фигура превращения
+// (ordinal + 1, 0 - нет превращения), 15-18 - флаги. Так генератор не создаёт объектов.
+public final class Move {
+    public static final int NONE = 0;
+
+    public static final int QUIET = 0;
+    public static final int CAPTURE = 1;
+    public static final int DOUBLE_PUSH = 2;
+    public static final int EN_PASSANT = 4;
+    public static final int CASTLING = 8;
+
+    private static final int TO_SHIFT = 6;
+    private static final int PROMOTION_SHIFT = 12;
+    private static final int FLAGS_SHIFT = 15;
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    private Move() {
+        throw new UnsupportedOperationException("Utility class should not be instantiated");
+    }
+
+    public static int encode(int from, int to, int flags) {
+        return from | to << TO_SHIFT | flags << FLAGS_SHIFT;
+    }
+
+    public static int encode(int from, int to, PieceType promotion, int flags) {
+        int promotionBits = promotion == null ? 0 : promotion.ordinal() + 1;
+        return encode(from, to, flags) | promotionBits << PROMOTION_SHIFT;
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> TO_SHIFT) & 0x3F;
+    }
+
+    public static PieceType promotion(int move) {
+        int promotionBits = (move >>> PROMOTION_SHIFT) & 0x7;
+        return promotionBits == 0 ? null : PIECE_TYPES[promotionBits - 1];
+    }
+
+    public static int flags(int move) {
+        return move >>> FLAGS_SHIFT;
+    }
+
+    public static boolean isCapture(int move) {
+        return (flags(move) & (CAPTURE | EN_PASSANT)) != 0;
+    }
+
+    public static boolean isPromotion(int move) {
+        return ((move >>> PROMOTION_SHIFT) & 0x7) != 0;
+    }
+
+    public static boolean isEnPassant(int move) {
+        return (flags(move) & EN_PASSANT) != 0;
+    }
+
+    public static boolean isCastling(int move) {
+        return (flags(move) & CASTLING) != 0;
+    }
+
+    public static boolean isDoublePush(int move) {
+        return (flags(move) & DOUBLE_PUSH) != 0;
+    }
+
+    // запись в формате e2e4 / e7e8q
+    public static String toString(int move) {
+        String result = squareName(from(move)) + squareName(to(move));
+        PieceType promotion = promotion(move);
+        return promotion == null ? result : result + promotionLetter(promotion);
+    }
+
+    // буква фигуры превращения, как в записи e7e8q; null - превращения нет
+    public static String promotionLetter(PieceType promotion) {
+        if (promotion == null) {
+            return null;
+        }
+        return switch (promotion) {
+            case HORSE -> "n";
+            case BISHOP -> "b";
+            case ROOK -> "r";
+            default -> "q";
+        };
+    }
+
+    // обратное к promotionLetter; null - для пустой строки и неизвестной буквы
+    public static PieceType promotionOf(String letter) {
+        if (letter == null || letter.length() != 1) {
+            return null;
+        }
+        return switch (Character.toLowerCase(letter.charAt(0))) {
+            case 'n' -> PieceType.HORSE;
+            case 'b' -> PieceType.BISHOP;
+            case 'r' -> PieceType.ROOK;
+            case 'q' -> PieceType.QUEEN;
+            default -> null;
+        };
+    }
+
+    private static String squareName(int square) {
+        return "" + (char) ('a' + Bitboards.fileOf(square)) + (Bitboards.rankOf(square) + 1);
+    }
+}
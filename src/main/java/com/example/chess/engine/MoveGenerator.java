@@ -0,0 +1,210 @@
+package com.example.chess.engine;
+
+import com.example.chess.engine.pieces.Color;
+import com.example.chess.engine.pieces.Piece;
+import com.example.chess.engine.pieces.PieceType;
+
+public final class MoveGenerator {
+    private static final PieceType[] PROMOTIONS = {
+        PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.HORSE
+    };
+
+    private MoveGenerator() {
+        throw new UnsupportedOperationException("Utility class should not be instantiated");
+    }
+
+    public static MoveList generateLegalMoves(Board board) {
+        MoveList moves = new MoveList();
+        generateLegalMoves(board, moves);
+        return moves;
+    }
+
+    public static MoveList generateLegalMoves(Board board, Color color) {
+        MoveList moves = new MoveList();
+        generateLegalMoves(board, color, -1L, moves);
+        return moves;
+    }
+
+    // ходы только одной фигуры
+    public static MoveList generateLegalMoves(Board board, Piece piece) {
+        MoveList moves = new MoveList();
+        generateLegalMoves(board, piece.getColor(), Bitboards.bit(piece.getSquare()), moves);
+        return moves;
+    }
+
+    // основной вариант без аллокаций: список очищается и заполняется заново
+    public static void generateLegalMoves(Board board, MoveList moves) {
+        generateLegalMoves(board, board.isWhiteToMove() ? Color.WHITE : Color.BLACK, -1L, moves);
+    }
+
+    public static void generateLegalMoves(Board board, Color color, long fromMask, MoveList moves) {
+        moves.clear();
+        generatePseudoLegalMoves(board, color, fromMask, moves);
+        filterLegal(board, color, moves);
+    }
+
+    // только взятия и превращения - для форсированного поиска (quiescence)
+    public static void generateLegalCaptures(Board board, MoveList moves) {
+        Color color = board.isWhiteToMove() ? Color.WHITE : Color.BLACK;
+        moves.clear();
+        generatePseudoLegalMoves(board, color, -1L, moves);
+
+        int tactical = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (Move.isCapture(move) || Move.isPromotion(move)) {
+                moves.set(tactical++, move);
+            }
+        }
+        moves.truncate(tactical);
+        filterLegal(board, color, moves);
+    }
+
+    public static void generatePseudoLegalMoves(Board board, Color color, long fromMask,
+                                                MoveList moves) {
+        long own = board.getOccupancy(color);
+        long enemy = board.getOccupancy(color.opposite());
+        long occupied = board.getOccupied();
+
+        generatePawnMoves(board, color, fromMask, moves);
+
+        long knights = board.getPieces(color, PieceType.HORSE) & fromMask;
+        while (knights != 0) {
+            int from = Long.numberOfTrailingZeros(knights);
+            knights &= knights - 1;
+            addMoves(from, Bitboards.knightAttacks(from) & ~own, enemy, moves);
+        }
+
+        long bishops = board.getPieces(color, PieceType.BISHOP) & fromMask;
+        while (bishops != 0) {
+            int from = Long.numberOfTrailingZeros(bishops);
+            bishops &= bishops - 1;
+            addMoves(from, Bitboards.bishopAttacks(from, occupied) & ~own, enemy, moves);
+        }
+
+        long rooks = board.getPieces(color, PieceType.ROOK) & fromMask;
+        while (rooks != 0) {
+            int from = Long.numberOfTrailingZeros(rooks);
+            rooks &= rooks - 1;
+            addMoves(from, Bitboards.rookAttacks(from, occupied) & ~own, enemy, moves);
+        }
+
+        long queens = board.getPieces(color, PieceType.QUEEN) & fromMask;
+        while (queens != 0) {
+            int from = Long.numberOfTrailingZeros(queens);
+            queens &= queens - 1;
+            addMoves(from, Bitboards.queenAttacks(from, occupied) & ~own, enemy, moves);
+        }
+
+        long king = board.getPieces(color, PieceType.KING) & fromMask;
+        if (king != 0) {
+            int from = Long.numberOfTrailingZeros(king);
+            addMoves(from, Bitboards.kingAttacks(from) & ~own, enemy, moves);
+            generateCastling(board, color, from, moves);
+        }
+    }
+
+    // нелегальные ходы выкидываются на месте, список уплотняется
+    private static void filterLegal(Board board, Color color, MoveList moves) {
+        int legal = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            board.makeMove(move);
+            long king = board.getPieces(color, PieceType.KING);
+            if (king == 0 || !GameAnalyzer.isSquareAttacked(
+                    Long.numberOfTrailingZeros(king), color.opposite(), board)) {
+                moves.set(legal++, move);
+            }
+            board.unmakeMove(move);
+        }
+        moves.truncate(legal);
+    }
+
+    private static void generatePawnMoves(Board board, Color color, long fromMask, MoveList moves) {
+        long pawns = board.getPieces(color, PieceType.PAWN) & fromMask;
+        long enemy = board.getOccupancy(color.opposite());
+        long empty = ~board.getOccupied();
+        int forward = color == Color.WHITE ? 8 : -8;
+        int startRank = color == Color.WHITE ? 1 : 6;
+        int lastRank = color == Color.WHITE ? 7 : 0;
+
+        // взятие на проходе возможно только для стороны, которая ходит
+        boolean toMove = board.isWhiteToMove() == (color == Color.WHITE);
+        long enPassant = toMove && board.getEnPassantSquare() >= 0
+                ? Bitboards.bit(board.getEnPassantSquare()) : 0L;
+
+        while (pawns != 0) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+
+            int oneStep = from + forward;
+            if ((empty & Bitboards.bit(oneStep)) != 0) {
+                addPawnMove(from, oneStep, Move.QUIET, lastRank, moves);
+                int twoSteps = oneStep + forward;
+                if (Bitboards.rankOf(from) == startRank && (empty & Bitboards.bit(twoSteps)) != 0) {
+                    moves.add(Move.encode(from, twoSteps, Move.DOUBLE_PUSH));
+                }
+            }
+
+            long attacks = Bitboards.pawnAttacks(color, from);
+            long captures = attacks & enemy;
+            while (captures != 0) {
+                int to = Long.numberOfTrailingZeros(captures);
+                captures &= captures - 1;
+                addPawnMove(from, to, Move.CAPTURE, lastRank, moves);
+            }
+            if ((attacks & enPassant) != 0) {
+                moves.add(Move.encode(from, board.getEnPassantSquare(), Move.EN_PASSANT));
+            }
+        }
+    }
+
+    private static void addPawnMove(int from, int to, int flags, int lastRank, MoveList moves) {
+        if (Bitboards.rankOf(to) != lastRank) {
+            moves.add(Move.encode(from, to, flags));
+            return;
+        }
+        for (PieceType promotion : PROMOTIONS) {
+            moves.add(Move.encode(from, to, promotion, flags));
+        }
+    }
+
+    private static void generateCastling(Board board, Color color, int kingSquare, MoveList moves) {
+        int base = color == Color.WHITE ? 0 : 56;
+        int rights = board.getCastlingRights();
+        int kingside = color == Color.WHITE ? Board.WHITE_KINGSIDE : Board.BLACK_KINGSIDE;
+        int queenside = color == Color.WHITE ? Board.WHITE_QUEENSIDE : Board.BLACK_QUEENSIDE;
+        if (kingSquare != base + 4 || (rights & (kingside | queenside)) == 0) {
+            return;
+        }
+
+        Color enemy = color.opposite();
+        if (GameAnalyzer.isSquareAttacked(kingSquare, enemy, board)) {
+            return;
+        }
+
+        long occupied = board.getOccupied();
+        if ((rights & kingside) != 0
+                && (occupied & (Bitboards.bit(base + 5) | Bitboards.bit(base + 6))) == 0
+                && !GameAnalyzer.isSquareAttacked(base + 5, enemy, board)
+                && !GameAnalyzer.isSquareAttacked(base + 6, enemy, board)) {
+            moves.add(Move.encode(kingSquare, base + 6, Move.CASTLING));
+        }
+        if ((rights & queenside) != 0
+                && (occupied & (Bitboards.bit(base + 1) | Bitboards.bit(base + 2)
+                        | Bitboards.bit(base + 3))) == 0
+                && !GameAnalyzer.isSquareAttacked(base + 3, enemy, board)
+                && !GameAnalyzer.isSquareAttacked(base + 2, enemy, board)) {
+            moves.add(Move.encode(kingSquare, base + 2, Move.CASTLING));
+        }
+    }
+
+    private static void addMoves(int from, long targets, long enemy, MoveList moves) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            int flags = (enemy & Bitboards.bit(to)) != 0 ? Move.CAPTURE : Move.QUIET;
+            moves.add(Move.encode(from, to, flags));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.chess.engine;
+
+// Переиспользуемый буфер ходов: генератор пишет в него упакованные int-ходы без аллокаций.
+// 256 хватает с запасом - в шахматной позиции не бывает больше 218 легальных ходов.
+public final class MoveList {
+    public static final int CAPACITY = 256;
+
+    private final int[] moves = new int[CAPACITY];
+    private int size;
+
+    public void add(int move) {
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    // оставляет первые size ходов
+    public void truncate(int size) {
+        this.size = size;
+    }
+
+    public boolean contains(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                result.append(", ");
+            }
+            result.append(Move.toString(moves[i]));
+        }
+        return result.append(']').toString();
+    }
+}
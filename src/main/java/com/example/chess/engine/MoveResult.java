@@ -0,0 +1,21 @@
+package com.example.chess.engine;
+
+// Итог попытки хода: OK - ход сделан, остальное - почему он отклонён
+public enum MoveResult {
+    OK,
+    OUT_OF_BOARD,
+    NO_PIECE,
+    NOT_YOUR_TURN,
+    OWN_PIECE,
+    // фигура так не ходит (в том числе ход на месте)
+    UNREACHABLE,
+    // фигура ходит так, но путь перегорожен
+    BLOCKED,
+    CASTLING_NOT_ALLOWED,
+    PINNED,
+    LEAVES_KING_IN_CHECK;
+
+    public boolean isOk() {
+        return this == OK;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.chess.engine;
+
+import com.example.chess.engine.pieces.Color;
+import com.example.chess.engine.pieces.Piece;
+import com.example.chess.engine.pieces.PieceType;
+
+// Причина, по которой ход отклонён. Вызывается только после того, как хода не нашлось
+// среди легальных: сначала проверяется, возможен ли ход без учёта шаха, затем - по
+// геометрии фигуры на пустой доске, перегорожен ли путь
+final class MoveValidator {
+
+    private MoveValidator() {
+        throw new UnsupportedOperationException("Utility class should not be instantiated");
+    }
+
+    static MoveResult diagnose(Board board, Piece piece, int to, MoveList moves) {
+        Color color = piece.getColor();
+        int from = piece.getSquare();
+        if (from == to) {
+            return MoveResult.UNREACHABLE;
+        }
+        if ((board.getOccupancy(color) & Bitboards.bit(to)) != 0) {
+            return MoveResult.OWN_PIECE;
+        }
+
+        moves.clear();
+        MoveGenerator.generatePseudoLegalMoves(board, color, Bitboards.bit(from), moves);
+        for (int i = 0; i < moves.size(); i++) {
+            if (Move.to(moves.get(i)) == to) {
+                if (piece.getType() != PieceType.KING && !GameAnalyzer.isCheck(color, board)
+                        && GameAnalyzer.isPiecePinned(piece, board)) {
+                    return MoveResult.PINNED;
+                }
+                return MoveResult.LEAVES_KING_IN_CHECK;
+            }
+        }
+
+        if (piece.getType() == PieceType.KING
+                && Bitboards.rankOf(from) == Bitboards.rankOf(to)
+                && Math.abs(Bitboards.fileOf(from) - Bitboards.fileOf(to)) == 2) {
+            return (between(from, to) & board.getOccupied()) != 0
+                    ? MoveResult.BLOCKED : MoveResult.CASTLING_NOT_ALLOWED;
+        }
+        return (emptyBoardReach(piece, from) & Bitboards.bit(to)) != 0
+                ? MoveResult.BLOCKED : MoveResult.UNREACHABLE;
+    }
+
+    // куда фигура могла бы пойти, если бы доска была пустой (пешка - только вперёд)
+    private static long emptyBoardReach(Piece piece, int from) {
+        return switch (piece.getType()) {
+            case PAWN -> pawnPushes(piece.getColor(), from);
+            case HORSE -> Bitboards.knightAttacks(from);
+            case BISHOP -> Bitboards.bishopAttacks(from, 0L);
+            case ROOK -> Bitboards.rookAttacks(from, 0L);
+            case QUEEN -> Bitboards.queenAttacks(from, 0L);
+            case KING -> Bitboards.kingAttacks(from);
+        };
+    }
+
+    private static long pawnPushes(Color color, int from) {
+        int forward = color == Color.WHITE ? 8 : -8;
+        int oneStep = from + forward;
+        if (oneStep < 0 || oneStep >= 64) {
+            return 0L;
+        }
+        long pushes = Bitboards.bit(oneStep);
+        if (Bitboards.rankOf(from) == (color == Color.WHITE ? 1 : 6)) {
+            pushes |= Bitboards.bit(oneStep + forward);
+        }
+        return pushes;
+    }
+
+    // клетки между королём и его целью при рокировке, плюс b-вертикаль для длинной
+    private static long between(int from, int to) {
+        long squares = 0L;
+        int step = to > from ? 1 : -1;
+        for (int square = from + step; square != to + step; square += step) {
+            squares |= Bitboards.bit(square);
+        }
+        if (step < 0) {
+            squares |= Bitboards.bit(to - 1);
+        }
+        return squares;
+    }
+}
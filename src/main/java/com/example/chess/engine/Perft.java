@@ -0,0 +1,103 @@
+package com.example.chess.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Подсчёт листьев дерева легальных ходов (perft) - проверка генератора по эталонным числам
+public final class Perft {
+
+    private Perft() {
+        throw new UnsupportedOperationException("Utility class should not be instantiated");
+    }
+
+    // доска изменяется по ходу счёта и возвращается в исходное состояние
+    public static long perft(Board board, int depth) {
+        MoveList[] lists = new MoveList[Math.max(depth, 1)];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = new MoveList();
+        }
+        return perft(board, depth, lists);
+    }
+
+    // списки ходов выделяются один раз на каждую глубину и переиспользуются
+    private static long perft(Board board, int depth, MoveList[] lists) {
+        if (depth == 0) {
+            return 1;
+        }
+
+        MoveList moves = lists[depth - 1];
+        MoveGenerator.generateLegalMoves(board, moves);
+        if (depth == 1) {
+            return moves.size();
+        }
+
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            board.makeMove(move);
+            nodes += perft(board, depth - 1, lists);
+            board.unmakeMove(move);
+        }
+        return nodes;
+    }
+
+    public static long parallelPerft(Board board, int depth) {
+        return parallelPerft(board, depth, ForkJoinPool.commonPool());
+    }
+
+    // корневые ходы раздаются задачами в пул, каждая считает своё поддерево последовательно
+    public static long parallelPerft(Board board, int depth, ForkJoinPool pool) {
+        if (depth <= 1) {
+            return perft(board, depth);
+        }
+        return pool.invoke(new RootTask(board, depth));
+    }
+
+    private static final class RootTask extends RecursiveTask<Long> {
+        private final Board board;
+        private final int depth;
+
+        private RootTask(Board board, int depth) {
+            this.board = board;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            List<SubtreeTask> tasks = new ArrayList<>();
+            MoveList moves = MoveGenerator.generateLegalMoves(board);
+            for (int i = 0; i < moves.size(); i++) {
+                tasks.add(new SubtreeTask(board, moves.get(i), depth - 1));
+            }
+            invokeAll(tasks);
+
+            long nodes = 0;
+            for (SubtreeTask task : tasks) {
+                nodes += task.join();
+            }
+            return nodes;
+        }
+    }
+
+    private static final class SubtreeTask extends RecursiveTask<Long> {
+        private final Board board;
+        private final int move;
+        private final int depth;
+
+        private SubtreeTask(Board board, int move, int depth) {
+            this.board = board;
+            this.move = move;
+            this.depth = depth;
+        }
+
+        // у каждой задачи своя копия доски, дальше - make/unmake без копирования
+        @Override
+        protected Long compute() {
+            Board next = new Board(board);
+            next.makeMove(move);
+            return perft(next, depth);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.chess.engine;
+
+import com.example.chess.engine.pieces.Color;
+import com.example.chess.engine.pieces.Piece;
+import com.example.chess.engine.pieces.PieceType;
+
+import java.nio.ByteBuffer;
+
+// Компактное двоичное представление позиции фиксированной длины (32 байта):
+//   0..7   - битборд занятости (big-endian)
+//   8..23  - по полубайту (color << 3 | type) на каждую занятую клетку в порядке возрастания клеток
+//   24     - бит 0: ход чёрных, биты 1..4: права на рокировку
+//   25     - клетка взятия на проходе + 1 (0 - нет)
+//   26..27 - полуходы по правилу 50 ходов
+//   28..29 - номер хода
+//   30..31 - резерв
+public final class PositionCodec {
+    public static final int SIZE = 32;
+
+    private static final int MAX_PIECES = 32;
+
+    private PositionCodec() {
+        throw new UnsupportedOperationException("Utility class should not be instantiated");
+    }
+
+    public static byte[] encode(Board board) {
+        ByteBuffer buffer = ByteBuffer.allocate(SIZE);
+        encode(board, buffer);
+        return buffer.array();
+    }
+
+    public static void encode(Board board, ByteBuffer buffer) {
+        long occupied = board.getOccupied();
+        if (Long.bitCount(occupied) > MAX_PIECES) {
+            throw new IllegalArgumentException("Too many pieces to encode: " + Long.bitCount(occupied));
+        }
+
+        int start = buffer.position();
+        buffer.putLong(occupied);
+        byte[] nibbles = new byte[MAX_PIECES / 2];
+        int index = 0;
+        for (long rest = occupied; rest != 0; rest &= rest - 1) {
+            Piece piece = board.getPieceAt(Long.numberOfTrailingZeros(rest));
+            int code = piece.getColor().ordinal() << 3 | piece.getType().ordinal();
+            nibbles[index >>> 1] |= (byte) ((index & 1) == 0 ? code << 4 : code);
+            index++;
+        }
+        buffer.put(nibbles);
+        buffer.put((byte) ((board.isWhiteToMove() ? 0 : 1) | board.getCastlingRights() << 1));
+        buffer.put((byte) (board.getEnPassantSquare() + 1));
+        buffer.putShort((short) board.getHalfmoveClock());
+        buffer.putShort((short) board.getFullmoveNumber());
+        buffer.putShort((short) 0);
+        assert buffer.position() - start == SIZE;
+    }
+
+    public static Board decode(byte[] bytes) {
+        if (bytes.length != SIZE) {
+            throw new IllegalArgumentException("Encoded position must be " + SIZE + " bytes");
+        }
+        return decode(ByteBuffer.wrap(bytes));
+    }
+
+    public static Board decode(ByteBuffer buffer) {
+        long occupied = buffer.getLong();
+        byte[] nibbles = new byte[MAX_PIECES / 2];
+        buffer.get(nibbles);
+
+        Board board = Board.empty();
+        int index = 0;
+        for (long rest = occupied; rest != 0; rest &= rest - 1) {
+            int square = Long.numberOfTrailingZeros(rest);
+            int code = (index & 1) == 0 ? (nibbles[index >>> 1] >>> 4) & 0xF : nibbles[index >>> 1] & 0xF;
+            int type = code & 7;
+            if (type >= PieceType.values().length) {
+                throw new IllegalArgumentException("Invalid piece code: " + code);
+            }
+            Color color = Color.values()[code >>> 3];
+            int x = Bitboards.fileOf(square);
+            int y = Bitboards.rankOf(square);
+            board.setPieceAt(x, y, Fen.createPiece(PieceType.values()[type], color, x, y));
+            index++;
+        }
+        board.trackKings();
+
+        int flags = buffer.get();
+        board.setWhiteToMove((flags & 1) == 0);
+        board.setCastlingRights((flags >>> 1) & 0xF);
+        board.setEnPassantSquare((buffer.get() & 0xFF) - 1);
+        board.setHalfmoveClock(buffer.getShort() & 0xFFFF);
+        board.setFullmoveNumber(buffer.getShort() & 0xFFFF);
+        buffer.getShort();
+        return board;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.chess.engine;
+
+import com.example.chess.engine.pieces.Color;
+import com.example.chess.engine.pieces.PieceType;
+import java.util.SplittableRandom;
+
+// Ключи Зобриста: хэш позиции = XOR ключей фигур на клетках, очереди хода,
+// прав на рокировку и вертикали взятия на проходе. Сид фиксирован, чтобы ключи
+// не менялись между запусками и их можно было хранить.
+public final class Zobrist {
+    private static final long[][] PIECE_SQUARE = new long[12][64];
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT_FILE = new long[8];
+    private static final long BLACK_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x2F3A5C7E9B1D4F61L);
+        for (long[] keys : PIECE_SQUARE) {
+            for (int square = 0; square < 64; square++) {
+                keys[square] = random.nextLong();
+            }
+        }
+        for (int rights = 0; rights < CASTLING.length; rights++) {
+            CASTLING[rights] = random.nextLong();
+        }
+        for (int file = 0; file < EN_PASSANT_FILE.length; file++) {
+            EN_PASSANT_FILE[file] = random.nextLong();
+        }
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+        throw new UnsupportedOperationException("Utility class should not be instantiated");
+    }
+
+    public static long piece(Color color, PieceType type, int square) {
+        return PIECE_SQUARE[color.ordinal() * 6 + type.ordinal()][square];
+    }
+
+    public static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    public static long enPassant(int square) {
+        return square < 0 ? 0L : EN_PASSANT_FILE[Bitboards.fileOf(square)];
+    }
+
+    public static long blackToMove() {
+        return BLACK_TO_MOVE;
+    }
+
+    // полный пересчёт по доске - для проверки инкрементального ключа
+    public static long compute(Board board) {
+        long key = 0L;
+        for (Color color : Color.values()) {
+            for (PieceType type : PieceType.values()) {
+                long pieces = board.getPieces(color, type);
+                while (pieces != 0) {
+                    key ^= piece(color, type, Long.numberOfTrailingZeros(pieces));
+                    pieces &= pieces - 1;
+                }
+            }
+        }
+        key ^= castling(board.getCastlingRights());
+        key ^= enPassant(board.getEnPassantSquare());
+        if (!board.isWhiteToMove()) {
+            key ^= BLACK_TO_MOVE;
+        }
+        return key;
+    }
+}
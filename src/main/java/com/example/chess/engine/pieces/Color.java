@@ -4,8 +4,12 @@ public enum Color {
     WHITE,
     BLACK;
 
+    public Color opposite() {
+        return this == WHITE ? BLACK : WHITE;
+    }
+
     @Override
     public String toString() {
         return this == WHITE ? "white" : "black";
     }
-}
\ No newline at end of file
+}
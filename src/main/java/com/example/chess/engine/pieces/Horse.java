@@ -1,5 +1,6 @@
 package com.example.chess.engine.pieces;
 
+import com.example.chess.engine.Bitboards;
 import com.example.chess.engine.Board;
 
 public class Horse extends Piece {
@@ -11,17 +12,13 @@ public class Horse extends Piece {
     }
 
     @Override
-    public boolean isLegalMove(int endX, int endY, Board board) {
-        if (isInvalidPosition(endX, endY)) {
-            return false;
-        }
-
-        int distanceX = endX - this.getCoordX();
-        int distanceY = endY - this.getCoordY();
+    public long attacks(Board board) {
+        return Bitboards.knightAttacks(getSquare());
+    }
 
-        return board.getPieceAt(endX, endY) == null
-                && ((Math.abs(distanceX) == 2 && Math.abs(distanceY) == 1)
-                || (Math.abs(distanceX) == 1 && Math.abs(distanceY) == 2));
+    @Override
+    public PieceType getType() {
+        return PieceType.HORSE;
     }
 
     @Override
@@ -1,7 +1,7 @@
 package com.example.chess.engine.pieces;
 
+import com.example.chess.engine.Bitboards;
 import com.example.chess.engine.Board;
-import com.example.chess.engine.GameAnalyzer;
 
 public class King extends Piece {
 
@@ -12,16 +12,13 @@ public class King extends Piece {
     }
 
     @Override
-    public boolean isLegalMove(int endX, int endY, Board board) {
-        if (isInvalidPosition(endX, endY)) {
-            return false;
-        }
-
-        if (!(Math.abs(endX - this.getCoordX()) <= 1 && Math.abs(endY - this.getCoordY()) <= 1)) {
-            return false;
-        }
+    public long attacks(Board board) {
+        return Bitboards.kingAttacks(getSquare());
+    }
 
-        return board.getPieceAt(endX, endY) == null;
+    @Override
+    public PieceType getType() {
+        return PieceType.KING;
     }
 
     @Override
@@ -1,12 +1,10 @@
 package com.example.chess.engine.pieces;
 
+import com.example.chess.engine.Bitboards;
 import com.example.chess.engine.Board;
 import lombok.Getter;
 import lombok.Setter;
 
-
-// попытаться подогнать под общую структуру фигур
-
 @Getter
 @Setter
 public class Pawn extends Piece {
@@ -23,40 +21,27 @@ public class Pawn extends Piece {
 
     @Override
     public boolean isLegalMove(int endX, int endY, Board board) {
-        if (isInvalidPosition(endX, endY)) {
+        if (isInvalidPosition(endX, endY) || this.getCoordX() != endX) {
             return false;
         }
 
-        if (this.getCoordX() != endX) {
-            return false;
+        long occupied = board.getOccupied();
+        long oneStep = Bitboards.bit(endX, this.getCoordY() + direction);
+        if (this.getCoordY() + direction == endY) {
+            return (occupied & oneStep) == 0;
         }
-        if (isFirstMove && this.getCoordY() + 2 * direction == endY
-                && board.getPieceAt(endX, endY) == null
-                && board.getPieceAt(endX, endY - 1 * direction) == null) {
-            return true;
-        }
-        return this.getCoordY() + 1 * direction == endY && board.getPieceAt(endX, endY) == null;
+        return isFirstMove && this.getCoordY() + 2 * direction == endY
+                && (occupied & (oneStep | Bitboards.bit(endX, endY))) == 0;
     }
 
     @Override
-    public boolean isLegalCapture(Piece targetPiece, Board board) {
-
-        if (targetPiece == null || targetPiece.getColor() == this.getColor()) {
-            return false; // Не можем захватить пустую клетку или свою фигуру
-        }
-
-        // взятие
-        if ((this.getCoordX() + 1 == targetPiece.getCoordX()
-                || this.getCoordX() - 1 == targetPiece.getCoordX())
-                && this.getCoordY() + 1 * direction == targetPiece.getCoordY()
-                && targetPiece.getColor() != this.getColor()) {
-            return true;
-        }
+    public long attacks(Board board) {
+        return Bitboards.pawnAttacks(this.getColor(), getSquare());
+    }
 
-        // взятие на проходе
-        return targetPiece instanceof Pawn pawn
-                && pawn.isEnPassant()
-                && board.getPieceAt(targetPiece.getCoordX(), targetPiece.getCoordY()) == null;
+    @Override
+    public PieceType getType() {
+        return PieceType.PAWN;
     }
 
     @Override
@@ -76,6 +61,9 @@ public class Pawn extends Piece {
 
     @Override
     public Piece copy() {
-        return new Pawn(this.getColor(), this.getCoordX(), this.getCoordY());
+        Pawn pawn = new Pawn(this.getColor(), this.getCoordX(), this.getCoordY());
+        pawn.setFirstMove(isFirstMove);
+        pawn.setEnPassant(isEnPassant);
+        return pawn;
     }
 }
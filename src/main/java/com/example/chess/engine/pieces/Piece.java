@@ -1,9 +1,8 @@
 package com.example.chess.engine.pieces;
 
+import com.example.chess.engine.Bitboards;
 import com.example.chess.engine.Board;
 import lombok.Data;
-import lombok.Getter;
-import lombok.Setter;
 
 @Data
 public abstract class Piece {
@@ -11,23 +10,35 @@ public abstract class Piece {
     private int coordX;
     private int coordY;
 
-    public abstract boolean isLegalMove(int endX, int endY, Board board);
     // структура:
     // 1. проверка на isInvalidPosition
-    // 2. проверка на правильность хода фигуры (по правилам)
-    // 3. определить направление движения фигуры по OY (directionY) и OX (directionX) 9
-    // (-1 в отрицательном направлении, 0 нет движения по данной оси, 1 в положительном направлении)
-    // 4. проверка на возможность хода фигуры (не мешает ли другая фигура)
+    // 2. attacks() возвращает битборд клеток, которые фигура бьёт с учётом занятости доски
+    // 3. ход возможен, если целевая клетка есть в attacks() и свободна
+    // (пешка ходит не туда, куда бьёт, поэтому переопределяет isLegalMove)
+    public boolean isLegalMove(int endX, int endY, Board board) {
+        if (isInvalidPosition(endX, endY)) {
+            return false;
+        }
+
+        long target = Bitboards.bit(endX, endY);
+        return (attacks(board) & target & ~board.getOccupied()) != 0;
+    }
 
     public boolean isLegalCapture(Piece targetPiece, Board board) {
         if (targetPiece == null || targetPiece.getColor() == this.color) {
             return false;
         }
 
-        Board boardCopy = new Board(board);
-        boardCopy.setPieceAt(targetPiece.getCoordX(), targetPiece.getCoordY(), null);
+        long target = Bitboards.bit(targetPiece.getCoordX(), targetPiece.getCoordY());
+        return (attacks(board) & target) != 0;
+    }
+
+    public abstract long attacks(Board board);
+
+    public abstract PieceType getType();
 
-        return isLegalMove(targetPiece.getCoordX(), targetPiece.getCoordY(), boardCopy);
+    public int getSquare() {
+        return Bitboards.square(coordX, coordY);
     }
 
     public void moveDone(int endX, int endY) {
@@ -40,6 +51,5 @@ public abstract class Piece {
                 || (this.getCoordX() == endX && this.getCoordY() == endY);
     }
 
-    // надо подумать над реализацией копироавния фигуры
     public abstract Piece copy();
 }
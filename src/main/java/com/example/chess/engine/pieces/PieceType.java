@@ -0,0 +1,10 @@
+package com.example.chess.engine.pieces;
+
+public enum PieceType {
+    PAWN,
+    HORSE,
+    BISHOP,
+    ROOK,
+    QUEEN,
+    KING
+}
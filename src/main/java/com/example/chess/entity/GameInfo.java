@@ -8,6 +8,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import java.time.LocalDateTime;
 import lombok.Getter;
@@ -20,9 +21,14 @@ import lombok.Setter;
 @NoArgsConstructor
 @Table(name = "games_info")
 public class GameInfo {
+    // id выдаются блоками из последовательности: Hibernate (pooled) и GameIdAllocator
+    // берут из неё верхнюю границу блока, поэтому шаг последовательности равен размеру блока
+    public static final String ID_SEQUENCE = "games_info_seq";
+    public static final int ID_BLOCK_SIZE = 100;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_BLOCK_SIZE)
     private long id;
 
     @Column(nullable = false)
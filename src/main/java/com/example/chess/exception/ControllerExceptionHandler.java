@@ -69,4 +69,11 @@ public class ControllerExceptionHandler {
         return buildResponseEntity(e.getMessage(), HttpStatus.BAD_REQUEST,
                 request.getDescription(false));
     }
+
+    @ExceptionHandler(value = {ValidationException.class})
+    public ResponseEntity<ExceptionResponse> handleValidationException(ValidationException e,
+                                                                       WebRequest request) {
+        return buildResponseEntity(e.getMessage(), HttpStatus.BAD_REQUEST,
+                request.getDescription(false));
+    }
 }
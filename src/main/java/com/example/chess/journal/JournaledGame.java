@@ -0,0 +1,40 @@
+package com.example.chess.journal;
+
+import com.example.chess.engine.pieces.Color;
+import java.util.Arrays;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+// Незаконченная партия, восстановленная из журнала: участники и ходы по порядку
+@Getter
+public class JournaledGame {
+    private final long gameId;
+    // 0 - место бота
+    private final long whitePlayerId;
+    private final long blackPlayerId;
+    // null - партия между людьми
+    private final Color botColor;
+
+    @Getter(AccessLevel.NONE)
+    private int[] moves = new int[64];
+    @Getter(AccessLevel.NONE)
+    private int moveCount;
+
+    JournaledGame(long gameId, long whitePlayerId, long blackPlayerId, Color botColor) {
+        this.gameId = gameId;
+        this.whitePlayerId = whitePlayerId;
+        this.blackPlayerId = blackPlayerId;
+        this.botColor = botColor;
+    }
+
+    void addMove(int move) {
+        if (moveCount == moves.length) {
+            moves = Arrays.copyOf(moves, moves.length * 2);
+        }
+        moves[moveCount++] = move;
+    }
+
+    public int[] getMoves() {
+        return Arrays.copyOf(moves, moveCount);
+    }
+}
@@ -0,0 +1,380 @@
+package com.example.chess.journal;
+
+import com.example.chess.engine.pieces.Color;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Журнал принятых ходов живых партий, только дописывание. Записи двоичные, фиксированной длины:
+//   START - тип, id партии, id белых и чёрных (0 - бот), цвет бота (-1 - партия без бота)
+//   MOVE  - тип, id партии, ход (упакованный int, см. Move)
+//   END   - тип, id партии
+// и заканчиваются CRC32C: хвост, оборванный сбоем, при чтении отбрасывается.
+//
+// Записи копятся в буфере, раз в flushMillis буфер пишется в текущий сегмент одним write
+// и одним fsync на все партии сразу. Ход, принятый меньше чем за flushMillis до сбоя, может
+// потеряться. Сегмент больше segmentBytes закрывается, и все закрытые сегменты сжимаются
+// в один без записей законченных партий. После перезапуска пишется новый сегмент, старые
+// только читаются в recover и со временем сжимаются.
+public final class MoveJournal implements Closeable {
+    static final byte START = 1;
+    static final byte MOVE = 2;
+    static final byte END = 3;
+
+    private static final int HEADER_BYTES = 1 + 8;
+    private static final int CRC_BYTES = 4;
+    private static final int START_BYTES = HEADER_BYTES + 8 + 8 + 1 + CRC_BYTES;
+    private static final int MOVE_BYTES = HEADER_BYTES + 4 + CRC_BYTES;
+    private static final int END_BYTES = HEADER_BYTES + CRC_BYTES;
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final String SEGMENT_PREFIX = "moves-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private static final MoveJournal DISABLED = new MoveJournal(null, 0);
+
+    private final Logger logger = LoggerFactory.getLogger(MoveJournal.class);
+
+    private final Path directory;
+    private final long segmentBytes;
+    // запись в файл и сжатие идут под ioLock; буфер pending - под монитором журнала,
+    // поэтому ход не ждёт fsync, пока буфер не заполнится
+    private final Object ioLock = new Object();
+    private ByteBuffer pending;
+    private ByteBuffer writing;
+    private FileChannel channel;
+    private long segmentIndex;
+    private ScheduledExecutorService flusher;
+    private volatile boolean closed;
+
+    private MoveJournal(Path directory, long segmentBytes) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+    }
+
+    // журнал, который ничего не пишет и ничего не восстанавливает
+    public static MoveJournal disabled() {
+        return DISABLED;
+    }
+
+    public static MoveJournal open(Path directory, long segmentBytes, long flushMillis) throws IOException {
+        Files.createDirectories(directory);
+        MoveJournal journal = new MoveJournal(directory, segmentBytes);
+        journal.pending = ByteBuffer.allocate(BUFFER_BYTES);
+        journal.writing = ByteBuffer.allocate(BUFFER_BYTES);
+        List<Path> segments = segments(directory);
+        journal.segmentIndex = segments.isEmpty() ? 1 : indexOf(segments.get(segments.size() - 1)) + 1;
+        journal.channel = openSegment(directory, journal.segmentIndex);
+        journal.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "MoveJournal-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        journal.flusher.scheduleWithFixedDelay(journal::flushQuietly, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+        return journal;
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    public void gameStarted(long gameId, long whitePlayerId, long blackPlayerId, Color botColor) {
+        ByteBuffer record = ByteBuffer.allocate(START_BYTES);
+        record.put(START).putLong(gameId).putLong(whitePlayerId).putLong(blackPlayerId)
+                .put(botColor == null ? -1 : (byte) botColor.ordinal());
+        append(seal(record));
+    }
+
+    public void moveMade(long gameId, int move) {
+        ByteBuffer record = ByteBuffer.allocate(MOVE_BYTES);
+        record.put(MOVE).putLong(gameId).putInt(move);
+        append(seal(record));
+    }
+
+    public void gameEnded(long gameId) {
+        ByteBuffer record = ByteBuffer.allocate(END_BYTES);
+        record.put(END).putLong(gameId);
+        append(seal(record));
+    }
+
+    // незаконченные партии из сегментов, записанных до открытия журнала, в порядке начала.
+    // START сбрасывает партию: после сбоя посреди сжатия её записи могут встретиться дважды
+    public List<JournaledGame> recover() throws IOException {
+        if (!isEnabled()) {
+            return List.of();
+        }
+        Map<Long, JournaledGame> games = new LinkedHashMap<>();
+        for (Path segment : segments(directory)) {
+            if (indexOf(segment) >= segmentIndex) {
+                continue;
+            }
+            read(segment, record -> {
+                long gameId = record.getLong(1);
+                switch (record.get(0)) {
+                    case START -> {
+                        byte bot = record.get(HEADER_BYTES + 16);
+                        games.put(gameId, new JournaledGame(gameId, record.getLong(HEADER_BYTES),
+                                record.getLong(HEADER_BYTES + 8), bot < 0 ? null : Color.values()[bot]));
+                    }
+                    case MOVE -> {
+                        JournaledGame game = games.get(gameId);
+                        if (game != null) {
+                            game.addMove(record.getInt(HEADER_BYTES));
+                        }
+                    }
+                    default -> games.remove(gameId);
+                }
+            });
+        }
+        return new ArrayList<>(games.values());
+    }
+
+    // пишет накопленные записи в сегмент и дожидается fsync
+    public void flush() {
+        if (!isEnabled()) {
+            return;
+        }
+        synchronized (ioLock) {
+            synchronized (this) {
+                ByteBuffer full = pending;
+                pending = writing;
+                writing = full;
+            }
+            if (writing.position() == 0 || !channel.isOpen()) {
+                writing.clear();
+                return;
+            }
+            writing.flip();
+            try {
+                while (writing.hasRemaining()) {
+                    channel.write(writing);
+                }
+                channel.force(false);
+                if (channel.size() >= segmentBytes) {
+                    roll();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                writing.clear();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!isEnabled() || closed) {
+            return;
+        }
+        closed = true;
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        synchronized (ioLock) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.warn("Не удалось закрыть журнал ходов: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void append(ByteBuffer record) {
+        if (!isEnabled() || closed) {
+            return;
+        }
+        while (true) {
+            synchronized (this) {
+                if (pending.remaining() >= record.remaining()) {
+                    pending.put(record);
+                    return;
+                }
+            }
+            flush();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.error("Не удалось записать журнал ходов", e);
+        }
+    }
+
+    // вызывается под ioLock
+    private void roll() throws IOException {
+        channel.close();
+        segmentIndex++;
+        channel = openSegment(directory, segmentIndex);
+        compact();
+    }
+
+    // все закрытые сегменты переписываются в один на месте последнего из них - без START и MOVE
+    // партий, для которых уже записан END; остальные сегменты удаляются после атомарной замены.
+    // Сбой между заменой и удалением оставляет старые сегменты рядом со сжатым, поэтому END
+    // партии остаётся в сжатом сегменте, пока её START или MOVE лежат в другом сегменте, -
+    // иначе recover снова поднял бы законченную партию. Следующее сжатие, когда старые
+    // сегменты уже удалены, убирает и такой END
+    private void compact() throws IOException {
+        List<Path> closedSegments = new ArrayList<>();
+        for (Path segment : segments(directory)) {
+            if (indexOf(segment) < segmentIndex) {
+                closedSegments.add(segment);
+            }
+        }
+        if (closedSegments.isEmpty()) {
+            return;
+        }
+
+        Path target = closedSegments.get(closedSegments.size() - 1);
+        Set<Long> ended = new HashSet<>();
+        Set<Long> elsewhere = new HashSet<>();
+        for (Path segment : closedSegments) {
+            boolean superseded = !segment.equals(target);
+            read(segment, record -> {
+                if (record.get(0) == END) {
+                    ended.add(record.getLong(1));
+                } else if (superseded) {
+                    elsewhere.add(record.getLong(1));
+                }
+            });
+        }
+
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        long kept;
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+            for (Path segment : closedSegments) {
+                read(segment, record -> {
+                    long gameId = record.getLong(1);
+                    if (ended.contains(gameId) && (record.get(0) != END || !elsewhere.contains(gameId))) {
+                        return;
+                    }
+                    if (buffer.remaining() < record.remaining()) {
+                        drain(buffer, out);
+                    }
+                    buffer.put(record);
+                });
+            }
+            drain(buffer, out);
+            out.force(true);
+            kept = out.size();
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        syncDirectory();
+        for (int i = 0; i < closedSegments.size() - 1; i++) {
+            Files.delete(closedSegments.get(i));
+        }
+        logger.info("Журнал ходов сжат: {} сегм., {} законченных партий убрано, осталось {} байт",
+                closedSegments.size(), ended.size(), kept);
+    }
+
+    // замена должна дойти до диска раньше удалений, иначе после сбоя пропали бы живые партии
+    private void syncDirectory() {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // не на всех платформах каталог можно открыть как файл
+            logger.debug("Не удалось синхронизировать каталог журнала: {}", e.getMessage());
+        }
+    }
+
+    private static void drain(ByteBuffer buffer, FileChannel out) {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+
+    private static ByteBuffer seal(ByteBuffer record) {
+        CRC32C crc = new CRC32C();
+        crc.update(record.array(), 0, record.position());
+        record.putInt((int) crc.getValue());
+        return record.flip();
+    }
+
+    // сегмент отображается в память и читается до конца или до первой битой записи
+    private static void read(Path segment, Consumer<ByteBuffer> visitor) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel in = FileChannel.open(segment, StandardOpenOption.READ)) {
+            if (in.size() == 0) {
+                return;
+            }
+            buffer = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+        }
+        CRC32C crc = new CRC32C();
+        int position = 0;
+        while (position < buffer.limit()) {
+            int size = recordBytes(buffer.get(position));
+            if (size < 0 || buffer.limit() - position < size) {
+                break;
+            }
+            crc.reset();
+            crc.update(buffer.slice(position, size - CRC_BYTES));
+            if ((int) crc.getValue() != buffer.getInt(position + size - CRC_BYTES)) {
+                break;
+            }
+            visitor.accept(buffer.slice(position, size));
+            position += size;
+        }
+    }
+
+    private static int recordBytes(byte type) {
+        return switch (type) {
+            case START -> START_BYTES;
+            case MOVE -> MOVE_BYTES;
+            case END -> END_BYTES;
+            default -> -1;
+        };
+    }
+
+    private static FileChannel openSegment(Path directory, long index) throws IOException {
+        return FileChannel.open(directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX)),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    }
+
+    private static List<Path> segments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }).sorted().toList();
+        }
+    }
+
+    private static long indexOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.chess.search;
+
+import com.example.chess.engine.Move;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class BookMove {
+    private final int move;
+    private final int weight;
+
+    @Override
+    public String toString() {
+        return Move.toString(move) + " (" + weight + ")";
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.chess.search;
+
+import com.example.chess.engine.Bitboards;
+import com.example.chess.engine.Board;
+import com.example.chess.engine.PieceSquareTables;
+import com.example.chess.engine.pieces.Color;
+import com.example.chess.engine.pieces.PieceType;
+
+// Статическая оценка позиции в сантипешках с точки зрения стороны, которая ходит.
+// Материал и "фигура-клетка" Board ведёт инкрементально, здесь к ним добавляется подвижность
+// по битбордам атак, и миттельшпиль с эндшпилем смешиваются по фазе партии.
+public final class Evaluator {
+    // индекс - PieceType.ordinal(); король не оценивается материально
+    static final int[] PIECE_VALUES = {100, 320, 330, 500, 900, 0};
+
+    // подвижность коня, слона, ладьи и ферзя: вес одной клетки сверх средней для фигуры
+    private static final PieceType[] MOBILE_PIECES = {
+        PieceType.HORSE, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN
+    };
+    private static final int[] MOBILITY_BASE = {4, 7, 7, 14};
+    private static final int[] MIDDLEGAME_MOBILITY = {4, 5, 2, 1};
+    private static final int[] ENDGAME_MOBILITY = {4, 5, 4, 2};
+
+    private Evaluator() {
+        throw new UnsupportedOperationException("Utility class should not be instantiated");
+    }
+
+    public static int evaluate(Board board) {
+        int middlegame = board.getMiddlegameScore();
+        int endgame = board.getEndgameScore();
+        for (Color color : Color.values()) {
+            int sign = color == Color.WHITE ? 1 : -1;
+            long own = board.getOccupancy(color);
+            for (int i = 0; i < MOBILE_PIECES.length; i++) {
+                for (long pieces = board.getPieces(color, MOBILE_PIECES[i]); pieces != 0; pieces &= pieces - 1) {
+                    int square = Long.numberOfTrailingZeros(pieces);
+                    int mobility = Long.bitCount(attacks(MOBILE_PIECES[i], square, board.getOccupied()) & ~own)
+                            - MOBILITY_BASE[i];
+                    middlegame += sign * mobility * MIDDLEGAME_MOBILITY[i];
+                    endgame += sign * mobility * ENDGAME_MOBILITY[i];
+                }
+            }
+        }
+
+        int score = taper(middlegame, endgame, board.getPhase());
+        return board.isWhiteToMove() ? score : -score;
+    }
+
+    // после превращений фаза может превысить полную - считается полной
+    static int taper(int middlegame, int endgame, int phase) {
+        int weight = Math.min(phase, PieceSquareTables.MAX_PHASE);
+        return (middlegame * weight + endgame * (PieceSquareTables.MAX_PHASE - weight))
+                / PieceSquareTables.MAX_PHASE;
+    }
+
+    private static long attacks(PieceType type, int square, long occupied) {
+        return switch (type) {
+            case HORSE -> Bitboards.knightAttacks(square);
+            case BISHOP -> Bitboards.bishopAttacks(square, occupied);
+            case ROOK -> Bitboards.rookAttacks(square, occupied);
+            case QUEEN -> Bitboards.queenAttacks(square, occupied);
+            default -> 0L;
+        };
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.chess.search;
+
+import com.example.chess.engine.Bitboards;
+import com.example.chess.engine.Board;
+import com.example.chess.engine.Move;
+import com.example.chess.engine.MoveGenerator;
+import com.example.chess.engine.MoveList;
+import com.example.chess.engine.pieces.PieceType;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+// Дебютная книга Polyglot (.bin), отображённая в память: записи по 16 байт (key u64, move u16,
+// weight u16, learn u32, big-endian), отсортированы по ключу. Ключ позиции - Polyglot Random64
+// (PolyglotZobrist), поэтому подходят готовые книги других движков. Поиск - бинарный по абсолютным
+// смещениям в MappedByteBuffer, книга в кучу не загружается.
+public final class OpeningBook {
+    public static final int ENTRY_SIZE = 16;
+
+    private static final PieceType[] PROMOTIONS = {
+        null, PieceType.HORSE, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN
+    };
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int size;
+
+    private OpeningBook(Path path, MappedByteBuffer buffer) {
+        this.path = path;
+        this.buffer = buffer;
+        this.size = buffer.capacity() / ENTRY_SIZE;
+    }
+
+    // отображение остаётся валидным и после закрытия канала; память освобождает GC
+    public static OpeningBook open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length % ENTRY_SIZE != 0 || length > Integer.MAX_VALUE) {
+                throw new IOException("Not a Polyglot opening book: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            return new OpeningBook(path, buffer);
+        }
+    }
+
+    // ходы книги, которые легальны в позиции; записи с нулевым весом пропускаются
+    public List<BookMove> lookup(Board board) {
+        List<BookMove> result = new ArrayList<>();
+        long key = PolyglotZobrist.compute(board);
+        int index = firstIndexOf(key);
+        if (index < 0) {
+            return result;
+        }
+
+        MoveList legal = MoveGenerator.generateLegalMoves(board);
+        for (; index < size && buffer.getLong(index * ENTRY_SIZE) == key; index++) {
+            int offset = index * ENTRY_SIZE;
+            int weight = buffer.getShort(offset + 10) & 0xFFFF;
+            int move = decodeMove(buffer.getShort(offset + 8) & 0xFFFF, legal);
+            if (weight > 0 && move != Move.NONE) {
+                result.add(new BookMove(move, weight));
+            }
+        }
+        return result;
+    }
+
+    // случайный ход с вероятностью, пропорциональной весу; Move.NONE - позиции нет в книге
+    public int pickMove(Board board, RandomGenerator random) {
+        List<BookMove> moves = lookup(board);
+        int total = 0;
+        for (BookMove move : moves) {
+            total += move.getWeight();
+        }
+        if (total == 0) {
+            return Move.NONE;
+        }
+
+        int target = random.nextInt(total);
+        for (BookMove move : moves) {
+            target -= move.getWeight();
+            if (target < 0) {
+                return move.getMove();
+            }
+        }
+        return Move.NONE;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    // ход кодируется как в Polyglot: биты 0-2 - вертикаль "куда", 3-5 - горизонталь "куда",
+    // 6-8/9-11 - то же для "откуда", 12-14 - превращение (1 конь .. 4 ферзь).
+    // Рокировка записывается как взятие королём своей ладьи (e1h1, e1a1).
+    public static int encodeMove(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        if (Move.isCastling(move)) {
+            to = Bitboards.fileOf(to) == 6 ? to + 1 : to - 2;
+        }
+        int promotion = 0;
+        if (Move.isPromotion(move)) {
+            promotion = switch (Move.promotion(move)) {
+                case HORSE -> 1;
+                case BISHOP -> 2;
+                case ROOK -> 3;
+                default -> 4;
+            };
+        }
+        return Bitboards.fileOf(to) | Bitboards.rankOf(to) << 3
+                | Bitboards.fileOf(from) << 6 | Bitboards.rankOf(from) << 9
+                | promotion << 12;
+    }
+
+    // ход книги сопоставляется с легальным ходом позиции, чтобы получить флаги
+    private static int decodeMove(int bookMove, MoveList legal) {
+        int to = Bitboards.square(bookMove & 7, (bookMove >>> 3) & 7);
+        int from = Bitboards.square((bookMove >>> 6) & 7, (bookMove >>> 9) & 7);
+        int promotionIndex = (bookMove >>> 12) & 7;
+        PieceType promotion = promotionIndex < PROMOTIONS.length ? PROMOTIONS[promotionIndex] : null;
+
+        for (int i = 0; i < legal.size(); i++) {
+            int move = legal.get(i);
+            if (Move.from(move) == from && Move.promotion(move) == promotion
+                    && (Move.to(move) == to || Move.isCastling(move) && encodeMove(move) == bookMove)) {
+                return move;
+            }
+        }
+        return Move.NONE;
+    }
+
+    // бинарный поиск первой записи с ключом; ключи сравниваются как беззнаковые
+    private int firstIndexOf(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (Long.compareUnsigned(buffer.getLong(middle * ENTRY_SIZE), key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low < size && buffer.getLong(low * ENTRY_SIZE) == key ? low : -1;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.chess.search;
+
+import com.example.chess.engine.Board;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Собирает книгу Polyglot из позиций и ходов (например, из сыгранных партий): одинаковые ходы
+// суммируют вес, ключи - PolyglotZobrist. Файл пишется рядом и подменяется атомарно, чтобы
+// читатели никогда не видели недописанную книгу.
+public class OpeningBookWriter {
+    private static final int MAX_WEIGHT = 0xFFFF;
+
+    // ключ -> (ход в кодировке encodeMove -> вес), ключи в беззнаковом порядке, как требует формат
+    private final TreeMap<Long, Map<Integer, Integer>> entries = new TreeMap<>(Long::compareUnsigned);
+
+    public OpeningBookWriter add(Board board, int move, int weight) {
+        entries.computeIfAbsent(PolyglotZobrist.compute(board), key -> new TreeMap<>())
+                .merge(OpeningBook.encodeMove(move), weight, (a, b) -> Math.min(a + b, MAX_WEIGHT));
+        return this;
+    }
+
+    public void write(Path path) throws IOException {
+        int count = entries.values().stream().mapToInt(Map::size).sum();
+        ByteBuffer buffer = ByteBuffer.allocate(count * OpeningBook.ENTRY_SIZE);
+        entries.forEach((key, moves) -> moves.forEach((move, weight) -> {
+            buffer.putLong(key);
+            buffer.putShort((short) (int) move);
+            buffer.putShort((short) (int) weight);
+            buffer.putInt(0);
+        }));
+        buffer.flip();
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
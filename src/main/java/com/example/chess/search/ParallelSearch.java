@@ -0,0 +1,176 @@
+package com.example.chess.search;
+
+import com.example.chess.engine.Board;
+import com.example.chess.tablebase.Tablebase;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Lazy SMP: все потоки ищут одну и ту же позицию на своих копиях доски и общаются только
+// через общую таблицу транспозиций. Вспомогательные потоки начинают с разной глубины,
+// поэтому быстро расходятся по дереву и заполняют таблицу для главного потока.
+// Главный поток ищет в вызывающем потоке, вспомогательные останавливаются, когда он закончил.
+// Одновременные вызовы не ждут друг друга: каждый берёт из пула свой набор Search
+// (экземпляры не потокобезопасны), таблица и потоки помощников - общие
+public class ParallelSearch implements AutoCloseable {
+    private final TranspositionTable table;
+    private final Tablebase tablebase;
+    private final int workerCount;
+    // свободные наборы рабочих экземпляров; пул растёт до числа одновременных поисков
+    private final Queue<Search[]> idleWorkers = new ConcurrentLinkedQueue<>();
+    private final ExecutorService helpers;
+
+    public ParallelSearch(int workerCount, int tableMegabytes) {
+        this(workerCount, tableMegabytes, Tablebase.empty());
+    }
+
+    public ParallelSearch(int workerCount, int tableMegabytes, Tablebase tablebase) {
+        if (workerCount < 1) {
+            throw new IllegalArgumentException("Worker count must be positive: " + workerCount);
+        }
+        this.table = new TranspositionTable(tableMegabytes);
+        this.tablebase = tablebase;
+        this.workerCount = workerCount;
+        idleWorkers.add(newWorkers());
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        helpers = workerCount == 1 ? null : Executors.newFixedThreadPool(workerCount - 1, runnable -> {
+            Thread thread = new Thread(runnable, "SearchWorker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public SearchResult search(Board board, SearchLimits limits) {
+        Search[] workers = idleWorkers.poll();
+        if (workers == null) {
+            workers = newWorkers();
+        }
+        try {
+            return search(workers, board, limits);
+        } finally {
+            idleWorkers.add(workers);
+        }
+    }
+
+    private SearchResult search(Search[] workers, Board board, SearchLimits limits) {
+        table.newSearch();
+
+        List<Future<SearchResult>> helperResults = new ArrayList<>(workers.length - 1);
+        List<AtomicBoolean> helperClaims = new ArrayList<>(workers.length - 1);
+        for (int i = 1; i < workers.length; i++) {
+            Search worker = workers[i];
+            Board copy = new Board(board);
+            worker.clearStop();
+            int startDepth = 1 + (i & 1);
+            AtomicBoolean claim = new AtomicBoolean();
+            helperClaims.add(claim);
+            helperResults.add(helpers.submit(
+                    () -> claim.compareAndSet(false, true) ? worker.iterate(copy, limits, startDepth) : null));
+        }
+
+        // помощники останавливаются и дожидаются и при исключении главного потока:
+        // набор вернётся в пул, только когда ни один его Search больше не работает
+        SearchResult best;
+        List<SearchResult> helperBest;
+        try {
+            workers[0].clearStop();
+            best = workers[0].iterate(board, limits, 1);
+        } finally {
+            for (int i = 1; i < workers.length; i++) {
+                workers[i].stop();
+            }
+            helperBest = awaitHelpers(helperResults, helperClaims);
+        }
+
+        long nodes = best.getNodes();
+        for (SearchResult result : helperBest) {
+            nodes += result.getNodes();
+            if (result.getDepth() > best.getDepth()) {
+                best = result;
+            }
+        }
+        return new SearchResult(best.getBestMove(), best.getScore(), best.getDepth(), nodes);
+    }
+
+    // помощник, не успевший начать из-за других поисков, уже не нужен: главный поток забирает
+    // его задачу себе, и она не запустится. Начавшего помощника ждём до конца: cancel сразу
+    // отпустил бы get(), пока поиск ещё идёт
+    private static List<SearchResult> awaitHelpers(List<Future<SearchResult>> helperResults,
+                                                   List<AtomicBoolean> helperClaims) {
+        List<SearchResult> results = new ArrayList<>(helperResults.size());
+        RuntimeException failure = null;
+        for (int i = 0; i < helperResults.size(); i++) {
+            if (helperClaims.get(i).compareAndSet(false, true)) {
+                helperResults.get(i).cancel(false);
+                continue;
+            }
+            try {
+                SearchResult result = await(helperResults.get(i));
+                if (result != null) {
+                    results.add(result);
+                }
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return results;
+    }
+
+    // сброс накопленной таблицы транспозиций (например, между независимыми замерами)
+    public void clearTable() {
+        table.clear();
+    }
+
+    public int getWorkerCount() {
+        return workerCount;
+    }
+
+    private Search[] newWorkers() {
+        Search[] workers = new Search[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            workers[i] = new Search(table, tablebase);
+        }
+        return workers;
+    }
+
+    @Override
+    public void close() {
+        if (helpers != null) {
+            helpers.shutdownNow();
+        }
+    }
+
+    // ожидание не прерывается: остановленный помощник завершается быстро, а вернуть набор
+    // в пул, пока он работает, нельзя. Флаг прерывания восстанавливается
+    private static SearchResult await(Future<SearchResult> future) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return future.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search worker failed", e.getCause());
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.example.chess.search;
+
+import com.example.chess.engine.Board;
+import com.example.chess.engine.GameAnalyzer;
+import com.example.chess.engine.Move;
+import com.example.chess.engine.MoveGenerator;
+import com.example.chess.engine.MoveList;
+import com.example.chess.engine.pieces.Color;
+import com.example.chess.engine.pieces.Piece;
+import com.example.chess.engine.pieces.PieceType;
+import com.example.chess.tablebase.Tablebase;
+
+// Negamax с альфа-бета отсечением, итеративным углублением и таблицей транспозиций.
+// Порядок ходов: ход из таблицы, взятия по MVV-LVA, killer-ходы, остальные.
+// Позиции с малым числом фигур берутся из эндшпильных таблиц, если они загружены.
+// Экземпляр не потокобезопасен: буферы ходов и killer-таблица переиспользуются между вызовами;
+// таблица транспозиций может быть общей для нескольких экземпляров (см. ParallelSearch).
+public class Search {
+    public static final int INFINITY = 1_000_000;
+    public static final int MATE = 100_000;
+    public static final int MAX_PLY = 128;
+
+    // лимиты проверяются раз в CHECK_INTERVAL узлов, чтобы не звать nanoTime на каждом
+    private static final int CHECK_INTERVAL = 2048;
+
+    private static final int PROMOTION_SCORE = 2_000_000;
+    private static final int CAPTURE_SCORE = 1_000_000;
+    private static final int KILLER_SCORE = 900_000;
+    private static final int DEFAULT_TABLE_MEGABYTES = 1;
+
+    private final TranspositionTable table;
+    private final Tablebase tablebase;
+    private final int tablebasePieces;
+
+    private final MoveList[] moveLists = new MoveList[MAX_PLY];
+    private final int[][] orderScores = new int[MAX_PLY][MoveList.CAPACITY];
+    private final int[][] killers = new int[MAX_PLY][2];
+
+    private long nodes;
+    private long maxNodes;
+    private long deadline;
+    private boolean stopped;
+    private volatile boolean stopRequested;
+
+    public Search() {
+        this(new TranspositionTable(DEFAULT_TABLE_MEGABYTES));
+    }
+
+    public Search(TranspositionTable table) {
+        this(table, Tablebase.empty());
+    }
+
+    public Search(TranspositionTable table, Tablebase tablebase) {
+        this.table = table;
+        this.tablebase = tablebase;
+        this.tablebasePieces = tablebase.maxPieces();
+        for (int i = 0; i < MAX_PLY; i++) {
+            moveLists[i] = new MoveList();
+        }
+    }
+
+    // доска изменяется по ходу поиска и возвращается в исходное состояние
+    public SearchResult search(Board board, SearchLimits limits) {
+        table.newSearch();
+        clearStop();
+        return iterate(board, limits, 1);
+    }
+
+    // итеративное углубление начиная с startDepth; вспомогательные потоки Lazy SMP
+    // стартуют с разной глубины, чтобы не повторять работу главного потока
+    SearchResult iterate(Board board, SearchLimits limits, int startDepth) {
+        nodes = 0;
+        maxNodes = limits.getMaxNodes();
+        deadline = limits.getTimeMillis() == Long.MAX_VALUE
+                ? Long.MAX_VALUE : System.nanoTime() + limits.getTimeMillis() * 1_000_000;
+        stopped = false;
+        for (int[] killer : killers) {
+            killer[0] = Move.NONE;
+            killer[1] = Move.NONE;
+        }
+
+        MoveList rootMoves = new MoveList();
+        MoveGenerator.generateLegalMoves(board, rootMoves);
+        if (rootMoves.isEmpty()) {
+            return new SearchResult(Move.NONE, isInCheck(board) ? -MATE : 0, 0, 0);
+        }
+
+        // позиция из таблиц разыгрывается точно, без перебора
+        int tablebaseValue = probeTablebase(board);
+        if (tablebaseValue != Tablebase.UNKNOWN) {
+            int move = tablebase.bestMove(board);
+            if (move != Move.NONE) {
+                return new SearchResult(move, Tablebase.score(tablebaseValue, 0, MATE), 0, 0);
+            }
+        }
+
+        int bestMove = rootMoves.get(0);
+        int bestScore = 0;
+        int completedDepth = 0;
+        int maxDepth = Math.min(limits.getMaxDepth(), MAX_PLY - 1);
+        long tableEntry = table.probe(board.getZobristKey());
+        if (tableEntry != 0 && rootMoves.contains(TranspositionTable.move(tableEntry))) {
+            bestMove = TranspositionTable.move(tableEntry);
+        }
+        for (int depth = Math.min(startDepth, maxDepth); depth <= maxDepth; depth++) {
+            int iterationBest = Move.NONE;
+            int alpha = -INFINITY;
+            scoreMoves(board, rootMoves, 0, bestMove);
+            for (int i = 0; i < rootMoves.size(); i++) {
+                int move = pickNext(rootMoves, 0, i);
+                board.makeMove(move);
+                int score = -negamax(board, depth - 1, 1, -INFINITY, -alpha);
+                board.unmakeMove(move);
+                if (stopped) {
+                    break;
+                }
+                if (score > alpha) {
+                    alpha = score;
+                    iterationBest = move;
+                }
+            }
+
+            // незавершённая итерация отбрасывается
+            if (stopped) {
+                break;
+            }
+            bestMove = iterationBest;
+            bestScore = alpha;
+            completedDepth = depth;
+            table.store(board.getZobristKey(), bestMove, bestScore, depth, TranspositionTable.EXACT, 0);
+            if (Math.abs(bestScore) >= MATE - MAX_PLY) {
+                break;
+            }
+        }
+        return new SearchResult(bestMove, bestScore, completedDepth, nodes);
+    }
+
+    // прерывание из другого потока; поиск вернёт результат последней завершённой итерации
+    public void stop() {
+        stopRequested = true;
+    }
+
+    // сбрасывается до запуска потока, чтобы stop(), пришедший раньше старта, не потерялся
+    void clearStop() {
+        stopRequested = false;
+    }
+
+    private int negamax(Board board, int depth, int ply, int alpha, int beta) {
+        if (depth <= 0) {
+            return quiescence(board, ply, alpha, beta);
+        }
+        if (countNode()) {
+            return 0;
+        }
+        // повторение внутри дерева или с партией считается ничьей уже со второго раза
+        if (board.getHalfmoveClock() >= 100 || board.repetitionCount() > 0) {
+            return 0;
+        }
+        if (ply >= MAX_PLY - 1) {
+            return Evaluator.evaluate(board);
+        }
+        int tablebaseValue = probeTablebase(board);
+        if (tablebaseValue != Tablebase.UNKNOWN) {
+            return Tablebase.score(tablebaseValue, ply, MATE);
+        }
+
+        long key = board.getZobristKey();
+        long tableEntry = table.probe(key);
+        int tableMove = Move.NONE;
+        if (tableEntry != 0) {
+            tableMove = TranspositionTable.move(tableEntry);
+            if (TranspositionTable.depth(tableEntry) >= depth) {
+                int score = TranspositionTable.score(tableEntry, ply);
+                int bound = TranspositionTable.bound(tableEntry);
+                if (bound == TranspositionTable.EXACT
+                        || bound == TranspositionTable.LOWER && score >= beta
+                        || bound == TranspositionTable.UPPER && score <= alpha) {
+                    return bound == TranspositionTable.EXACT ? score
+                            : bound == TranspositionTable.LOWER ? beta : alpha;
+                }
+            }
+        }
+
+        MoveList moves = moveLists[ply];
+        MoveGenerator.generateLegalMoves(board, moves);
+        if (moves.isEmpty()) {
+            return isInCheck(board) ? -MATE + ply : 0;
+        }
+
+        int bestMove = Move.NONE;
+        int bound = TranspositionTable.UPPER;
+        scoreMoves(board, moves, ply, tableMove);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = pickNext(moves, ply, i);
+            board.makeMove(move);
+            int score = -negamax(board, depth - 1, ply + 1, -beta, -alpha);
+            board.unmakeMove(move);
+            if (stopped) {
+                return 0;
+            }
+            if (score >= beta) {
+                if (!Move.isCapture(move) && !Move.isPromotion(move)) {
+                    storeKiller(ply, move);
+                }
+                table.store(key, move, beta, depth, TranspositionTable.LOWER, ply);
+                return beta;
+            }
+            if (score > alpha) {
+                alpha = score;
+                bestMove = move;
+                bound = TranspositionTable.EXACT;
+            }
+        }
+        table.store(key, bestMove, alpha, depth, bound, ply);
+        return alpha;
+    }
+
+    // форсированный поиск по взятиям до спокойной позиции, чтобы не оценивать посреди размена
+    private int quiescence(Board board, int ply, int alpha, int beta) {
+        if (countNode()) {
+            return 0;
+        }
+
+        int standPat = Evaluator.evaluate(board);
+        if (standPat >= beta) {
+            return beta;
+        }
+        if (standPat > alpha) {
+            alpha = standPat;
+        }
+        if (ply >= MAX_PLY - 1) {
+            return alpha;
+        }
+
+        MoveList moves = moveLists[ply];
+        MoveGenerator.generateLegalCaptures(board, moves);
+        scoreMoves(board, moves, ply, Move.NONE);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = pickNext(moves, ply, i);
+            board.makeMove(move);
+            int score = -quiescence(board, ply + 1, -beta, -alpha);
+            board.unmakeMove(move);
+            if (stopped) {
+                return 0;
+            }
+            if (score >= beta) {
+                return beta;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+        }
+        return alpha;
+    }
+
+    private int probeTablebase(Board board) {
+        return Long.bitCount(board.getOccupied()) <= tablebasePieces
+                ? tablebase.probe(board) : Tablebase.UNKNOWN;
+    }
+
+    // true - бюджет исчерпан, поиск нужно сворачивать
+    private boolean countNode() {
+        nodes++;
+        if ((nodes & (CHECK_INTERVAL - 1)) == 0
+                && (stopRequested || nodes >= maxNodes || System.nanoTime() >= deadline)) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    // MVV-LVA: сначала самая ценная жертва, при равных - самый дешёвый нападающий
+    private void scoreMoves(Board board, MoveList moves, int ply, int hashMove) {
+        int[] scores = orderScores[ply];
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int score = 0;
+            if (move == hashMove) {
+                score = Integer.MAX_VALUE;
+            } else if (Move.isPromotion(move)) {
+                score = PROMOTION_SCORE + Evaluator.PIECE_VALUES[Move.promotion(move).ordinal()];
+            } else if (Move.isCapture(move)) {
+                Piece victim = board.getPieceAt(Move.to(move));
+                int victimType = victim == null ? PieceType.PAWN.ordinal() : victim.getType().ordinal();
+                int attackerType = board.getPieceAt(Move.from(move)).getType().ordinal();
+                score = CAPTURE_SCORE + victimType * 8 - attackerType;
+            } else if (move == killers[ply][0]) {
+                score = KILLER_SCORE;
+            } else if (move == killers[ply][1]) {
+                score = KILLER_SCORE - 1;
+            }
+            scores[i] = score;
+        }
+    }
+
+    // выбор лучшего из оставшихся ходов: при отсечении остальные так и не сортируются
+    private int pickNext(MoveList moves, int ply, int index) {
+        int[] scores = orderScores[ply];
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        if (best != index) {
+            int move = moves.get(best);
+            moves.set(best, moves.get(index));
+            moves.set(index, move);
+            int score = scores[best];
+            scores[best] = scores[index];
+            scores[index] = score;
+        }
+        return moves.get(index);
+    }
+
+    private void storeKiller(int ply, int move) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+    }
+
+    private static boolean isInCheck(Board board) {
+        return GameAnalyzer.isCheck(board.isWhiteToMove() ? Color.WHITE : Color.BLACK, board);
+    }
+}
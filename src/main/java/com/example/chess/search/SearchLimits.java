@@ -0,0 +1,18 @@
+package com.example.chess.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Бюджет поиска: останавливаемся по первому исчерпанному ограничению.
+// Итеративное углубление всегда возвращает ход последней завершённой итерации.
+@Getter
+@AllArgsConstructor
+public class SearchLimits {
+    private final int maxDepth;
+    private final long maxNodes;
+    private final long timeMillis;
+
+    public static SearchLimits depth(int maxDepth) {
+        return new SearchLimits(maxDepth, Long.MAX_VALUE, Long.MAX_VALUE);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.chess.search;
+
+import com.example.chess.engine.Move;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SearchResult {
+    // Move.NONE, если у стороны нет легальных ходов
+    private final int bestMove;
+    // оценка в сантипешках с точки зрения стороны, которая ходит
+    private final int score;
+    private final int depth;
+    private final long nodes;
+
+    @Override
+    public String toString() {
+        return Move.toString(bestMove) + " score=" + score + " depth=" + depth + " nodes=" + nodes;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.chess.search;
+
+import com.example.chess.engine.Move;
+import java.util.Arrays;
+
+// Таблица транспозиций фиксированного размера, общая для всех потоков поиска.
+// Запись - два соседних long: [key ^ data, data]. Потоки пишут и читают без блокировок;
+// если две записи перемешались, key ^ data не совпадёт с ключом и запись считается промахом.
+//
+// Упаковка data: биты 0-18 - ход, 19-20 - тип оценки, 21-28 - глубина,
+// 29-36 - поколение (номер поиска), 37-63 - оценка со знаком.
+public class TranspositionTable {
+    public static final int EXACT = 1;
+    public static final int LOWER = 2;
+    public static final int UPPER = 3;
+
+    private static final int ENTRY_BYTES = 16;
+    private static final int BOUND_SHIFT = 19;
+    private static final int DEPTH_SHIFT = 21;
+    private static final int AGE_SHIFT = 29;
+    private static final int SCORE_SHIFT = 37;
+    private static final long MOVE_MASK = (1L << BOUND_SHIFT) - 1;
+
+    private final long[] entries;
+    private final int indexMask;
+    // поиски могут идти одновременно из разных потоков
+    private volatile int age;
+
+    // размер округляется вниз до степени двойки записей
+    public TranspositionTable(int megabytes) {
+        long count = Math.max(1L, (long) megabytes * 1024 * 1024 / ENTRY_BYTES);
+        int size = Integer.highestOneBit((int) Math.min(count, 1 << 26));
+        entries = new long[size * 2];
+        indexMask = size - 1;
+    }
+
+    // новое поколение: записи прошлых поисков вытесняются в первую очередь
+    public void newSearch() {
+        age = (age + 1) & 0xFF;
+    }
+
+    public void clear() {
+        Arrays.fill(entries, 0L);
+    }
+
+    // 0 - промах
+    public long probe(long key) {
+        int index = index(key);
+        long data = entries[index + 1];
+        return (entries[index] ^ data) == key ? data : 0L;
+    }
+
+    // оценка матов хранится относительно узла, а не корня, чтобы транспозиции на другой ply
+    // не искажали расстояние до мата
+    public void store(long key, int move, int score, int depth, int bound, int ply) {
+        int index = index(key);
+        long oldData = entries[index + 1];
+        boolean sameKey = (entries[index] ^ oldData) == key;
+        if (oldData != 0 && ageOf(oldData) == age && depth < depth(oldData)
+                && !(sameKey && bound == EXACT)) {
+            return;
+        }
+        if (move == Move.NONE && sameKey) {
+            move = move(oldData);
+        }
+
+        long data = (move & MOVE_MASK)
+                | (long) bound << BOUND_SHIFT
+                | (long) Math.min(depth, 0xFF) << DEPTH_SHIFT
+                | (long) age << AGE_SHIFT
+                | (long) toTable(score, ply) << SCORE_SHIFT;
+        entries[index] = key ^ data;
+        entries[index + 1] = data;
+    }
+
+    public static int move(long data) {
+        return (int) (data & MOVE_MASK);
+    }
+
+    public static int bound(long data) {
+        return (int) (data >>> BOUND_SHIFT) & 0x3;
+    }
+
+    public static int depth(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & 0xFF;
+    }
+
+    public static int score(long data, int ply) {
+        int score = (int) (data >> SCORE_SHIFT);
+        if (score >= Search.MATE - Search.MAX_PLY) {
+            return score - ply;
+        }
+        if (score <= -Search.MATE + Search.MAX_PLY) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    public int capacity() {
+        return indexMask + 1;
+    }
+
+    private static int ageOf(long data) {
+        return (int) (data >>> AGE_SHIFT) & 0xFF;
+    }
+
+    private static int toTable(int score, int ply) {
+        if (score >= Search.MATE - Search.MAX_PLY) {
+            return score + ply;
+        }
+        if (score <= -Search.MATE + Search.MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private int index(long key) {
+        return ((int) key & indexMask) << 1;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.chess.service;
+
+import com.example.chess.dto.response.AnalysisResponse;
+import com.example.chess.dto.response.BookMoveResponse;
+import java.util.List;
+
+public interface AnalysisService {
+    public AnalysisResponse analyse(String fen);
+
+    public List<BookMoveResponse> getBookMoves(String fen);
+}
@@ -0,0 +1,5 @@
+package com.example.chess.service;
+
+public interface GameIdAllocator {
+    public long nextId();
+}
@@ -0,0 +1,16 @@
+package com.example.chess.service;
+
+import com.example.chess.entity.GameInfo;
+import java.util.concurrent.CompletableFuture;
+
+public interface GameInfoWriter {
+    public CompletableFuture<Void> insertLater(GameInfo gameInfo);
+
+    public CompletableFuture<Void> saveLater(GameInfo gameInfo);
+
+    public int flush();
+
+    public int getPendingCount();
+
+    public long getDroppedCount();
+}
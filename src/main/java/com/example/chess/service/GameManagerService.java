@@ -1,11 +1,41 @@
 package com.example.chess.service;
 
+import com.example.chess.dto.response.GameReplayResponse;
+import com.example.chess.dto.response.GameStateResponse;
+import com.example.chess.dto.response.LiveGamesResponse;
+import com.example.chess.engine.pieces.Color;
+import com.example.chess.engine.pieces.PieceType;
 import com.example.chess.entity.Player;
+import java.util.concurrent.CompletableFuture;
 
 public interface GameManagerService {
 
     public Long createGame(Player whitePlayer, Player blackPlayer);
 
+    public Long createBotGame(Player player, Color playerColor);
+
+    public boolean isBotGame(long gameId);
+
+    public CompletableFuture<Integer> playBotMove(long gameId);
+
     public GameService getActiveGame(long gameId);
 
+    public CompletableFuture<Boolean> endGame(long gameId);
+
+    public CompletableFuture<Boolean> submitMove(long gameId, long playerId,
+                                                 int startX, int startY, int endX, int endY);
+
+    public CompletableFuture<Boolean> submitMove(long gameId, long playerId,
+                                                 int startX, int startY, int endX, int endY, PieceType promotion);
+
+    public CompletableFuture<Boolean> claimDraw(long gameId, long playerId);
+
+    public CompletableFuture<GameStateResponse> getGameState(long gameId);
+
+    public CompletableFuture<GameReplayResponse> replayMoves(long gameId, long lastSeq);
+
+    public int evictIdleGames(long now);
+
+    public LiveGamesResponse getLiveGames();
+
 }
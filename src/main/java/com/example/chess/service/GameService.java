@@ -1,31 +1,64 @@
 package com.example.chess.service;
 
 import com.example.chess.engine.Board;
+import com.example.chess.engine.MoveResult;
+import com.example.chess.engine.MoveList;
 import com.example.chess.engine.pieces.Color;
 import com.example.chess.engine.pieces.Piece;
+import com.example.chess.engine.pieces.PieceType;
 import com.example.chess.entity.GameInfo;
 import com.example.chess.entity.Player;
 import com.example.chess.exception.game.IllegalMove;
-import java.util.List;
-import org.antlr.v4.runtime.misc.Pair;
+import com.example.chess.tablebase.Tablebase;
+import java.util.concurrent.CompletableFuture;
 
 
 public interface GameService {
     public long initGame(Player whitePlayer, Player blackPlayer);
 
+    public void restoreGame(GameInfo gameInfo, boolean persisted);
+
     public boolean isCheck(Color color);
 
     public boolean isCheckmate(Color color);
 
     public boolean isStalemate();
 
+    public boolean isTablebaseDraw(Tablebase tablebase);
+
+    public boolean isDrawByRule();
+
+    public boolean claimDraw();
+
+    public String refreshStatus();
+
+    public String getStatus();
+
+    public int getMoveCount();
+
+    public boolean isFinished();
+
+    public Color getPlayerColor(long playerId);
+
     public void makeMove(int startX, int startY, int endX, int endY) throws IllegalMove;
 
+    public void makeMove(int move) throws IllegalMove;
+
+    public MoveResult tryMove(int startX, int startY, int endX, int endY);
+
+    public MoveResult tryMove(int startX, int startY, int endX, int endY, PieceType promotion);
+
+    public MoveResult tryMove(int move);
+
     public Piece[][] showBoard();
 
-    public List<Pair<Integer, Integer>> calculateMoves(Board board, Color color);
+    public MoveList calculateMoves(Board board, Color color);
+
+    public CompletableFuture<Void> endOfGame();
+
+    public void abandon();
 
-    public void endOfGame();
+    public long estimatedBytes();
 
     public Board getBoard();
 
@@ -6,4 +6,6 @@ public interface MatchMakingService {
     public void addPlayerToQueue(Long playerId);
 
     public void removePlayerFromQueue(Long playerId);
+
+    public void playAgainstBot(Long playerId);
 }
@@ -0,0 +1,15 @@
+package com.example.chess.service;
+
+import com.example.chess.engine.Board;
+import com.example.chess.search.BookMove;
+import java.util.List;
+
+public interface OpeningBookService {
+    public int findMove(Board board);
+
+    public List<BookMove> getMoves(Board board);
+
+    public int reload();
+
+    public boolean isLoaded();
+}
@@ -0,0 +1,76 @@
+package com.example.chess.service.implementation;
+
+import com.example.chess.dto.response.AnalysisResponse;
+import com.example.chess.dto.response.BookMoveResponse;
+import com.example.chess.engine.Board;
+import com.example.chess.engine.Fen;
+import com.example.chess.engine.Move;
+import com.example.chess.exception.ValidationException;
+import com.example.chess.search.ParallelSearch;
+import com.example.chess.search.Search;
+import com.example.chess.search.SearchLimits;
+import com.example.chess.search.SearchResult;
+import com.example.chess.service.AnalysisService;
+import com.example.chess.service.OpeningBookService;
+import com.example.chess.tablebase.Tablebase;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+@Service
+public class AnalysisServiceImpl implements AnalysisService {
+    private static final String SOURCE_BOOK = "book";
+    private static final String SOURCE_SEARCH = "search";
+    private static final String SOURCE_TABLEBASE = "tablebase";
+
+    private final OpeningBookService openingBookService;
+    private final ParallelSearch search;
+    private final Tablebase tablebase;
+    private final SearchLimits limits;
+
+    public AnalysisServiceImpl(OpeningBookService openingBookService,
+                               @Qualifier("analysisSearch") ParallelSearch search,
+                               Tablebase tablebase,
+                               @Value("${chess.analysis.max-depth:64}") int maxDepth,
+                               @Value("${chess.analysis.time-ms:2000}") long timeMillis) {
+        this.openingBookService = openingBookService;
+        this.search = search;
+        this.tablebase = tablebase;
+        this.limits = new SearchLimits(maxDepth, Long.MAX_VALUE, timeMillis);
+    }
+
+    // позиция из книги или эндшпильных таблиц отвечается сразу, без поиска
+    public AnalysisResponse analyse(String fen) {
+        Board board = parse(fen);
+        int bookMove = openingBookService.findMove(board);
+        if (bookMove != Move.NONE) {
+            return new AnalysisResponse(fen, Move.toString(bookMove), 0, 0, 0, SOURCE_BOOK);
+        }
+        int tablebaseValue = tablebase.probe(board);
+        int tablebaseMove = tablebaseValue == Tablebase.UNKNOWN ? Move.NONE : tablebase.bestMove(board);
+        if (tablebaseMove != Move.NONE) {
+            return new AnalysisResponse(fen, Move.toString(tablebaseMove),
+                    Tablebase.score(tablebaseValue, 0, Search.MATE), 0, 0, SOURCE_TABLEBASE);
+        }
+
+        SearchResult result = search.search(board, limits);
+        return new AnalysisResponse(fen, result.getBestMove() == Move.NONE ? null
+                : Move.toString(result.getBestMove()), result.getScore(), result.getDepth(),
+                result.getNodes(), SOURCE_SEARCH);
+    }
+
+    public List<BookMoveResponse> getBookMoves(String fen) {
+        return openingBookService.getMoves(parse(fen)).stream()
+                .map(move -> new BookMoveResponse(Move.toString(move.getMove()), move.getWeight()))
+                .toList();
+    }
+
+    private static Board parse(String fen) {
+        try {
+            return Fen.parse(fen);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new ValidationException("Некорректная позиция FEN: " + fen);
+        }
+    }
+}
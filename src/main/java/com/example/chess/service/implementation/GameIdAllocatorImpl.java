@@ -0,0 +1,68 @@
+package com.example.chess.service.implementation;
+
+import com.example.chess.entity.GameInfo;
+import com.example.chess.service.GameIdAllocator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+// Выдаёт id новых партий из памяти: одно обращение к последовательности резервирует блок
+// из GameInfo.ID_BLOCK_SIZE id, как оптимизатор pooled в Hibernate - значение последовательности
+// считается верхней границей блока. Поэтому строка GameInfo может появиться в базе позже партии
+@Service
+public class GameIdAllocatorImpl implements GameIdAllocator {
+    private final Logger logger = LoggerFactory.getLogger(GameIdAllocatorImpl.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private long next = 1;
+    private long last = 0;
+    private volatile boolean sequenceReady;
+
+    public GameIdAllocatorImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public synchronized long nextId() {
+        if (next > last) {
+            allocateBlock();
+        }
+        return next++;
+    }
+
+    private void allocateBlock() {
+        if (!sequenceReady) {
+            throw new IllegalStateException("Sequence " + GameInfo.ID_SEQUENCE
+                    + " is not checked yet: application is starting");
+        }
+        Long high = jdbcTemplate.queryForObject("SELECT nextval('" + GameInfo.ID_SEQUENCE + "')", Long.class);
+        if (high == null) {
+            throw new IllegalStateException("Sequence " + GameInfo.ID_SEQUENCE + " returned no value");
+        }
+        // первое значение новой последовательности (1) даёт блок из одного id
+        last = high;
+        next = Math.max(1, high - GameInfo.ID_BLOCK_SIZE + 1);
+    }
+
+    // раньше id выдавала колонка IDENTITY: последовательность создаётся при необходимости
+    // и сдвигается за уже существующие id, чтобы блоки с ними не пересекались. Проверка идёт
+    // один раз при старте, когда схема уже создана, а не на пути первой партии
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void ensureSequence() {
+        if (sequenceReady) {
+            return;
+        }
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + GameInfo.ID_SEQUENCE
+                + " START WITH 1 INCREMENT BY " + GameInfo.ID_BLOCK_SIZE);
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM games_info", Long.class);
+        Long current = jdbcTemplate.queryForObject("SELECT last_value FROM " + GameInfo.ID_SEQUENCE, Long.class);
+        // после setval следующий блок начнётся с maxId + 1
+        if (maxId != null && current != null && current <= maxId && maxId > 0) {
+            jdbcTemplate.queryForObject("SELECT setval('" + GameInfo.ID_SEQUENCE + "', ?)", Long.class, maxId);
+            logger.info("Последовательность {} сдвинута за существующие id (max {})", GameInfo.ID_SEQUENCE, maxId);
+        }
+        sequenceReady = true;
+    }
+}
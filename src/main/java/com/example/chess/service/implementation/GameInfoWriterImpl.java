@@ -0,0 +1,295 @@
+package com.example.chess.service.implementation;
+
+import com.example.chess.entity.GameInfo;
+import com.example.chess.entity.Player;
+import com.example.chess.service.GameInfoWriter;
+import jakarta.annotation.PreDestroy;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.dao.NonTransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+// Отложенная запись партий: initGame кладёт новую GameInfo (id уже выдан GameIdAllocator),
+// endOfGame - итог; повторная запись той же партии до сброса заменяет предыдущую, так что
+// короткая партия попадает в базу одним INSERT. Очередь сбрасывается пачками JDBC в одной
+// транзакции раз в flush-ms, сразу по достижении batch-size и при остановке приложения.
+// Если очередь дошла до capacity, сброс выполняет сам вызывающий поток - так он притормаживает
+// вместе с базой. Если пачка не записалась, строки пишутся по одной: строка, которую база
+// отвергает сама по себе (нарушение ограничения, слишком длинное поле), откладывается в журнал
+// ошибок и не держит остальные, а при отказе самой базы остаток ждёт следующего сброса.
+// Пока база отказывает, вызывающие потоки не сбрасывают очередь сами (ждут flush-ms), а очередь
+// ограничена max-pending: самые старые записи сверх неё отбрасываются. future завершается
+// после записи, а для отброшенной записи - с ошибкой
+@Service
+public class GameInfoWriterImpl implements GameInfoWriter {
+    private static final String INSERT_GAME = "INSERT INTO games_info "
+            + "(id, start_time, end_time, white_player_id, black_player_id, status, notes) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_RESULT =
+            "UPDATE games_info SET end_time = ?, status = ?, notes = ? WHERE id = ?";
+
+    private final Logger logger = LoggerFactory.getLogger(GameInfoWriterImpl.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionOperations transactions;
+    private final Executor executor;
+    private final int batchSize;
+    private final int capacity;
+    private final int maxPending;
+    private final long retryDelayMillis;
+
+    // id партии -> запись, ждущая сброса; под монитором писателя
+    private final Map<Long, PendingWrite> pending = new LinkedHashMap<>();
+    private final Object flushLock = new Object();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final AtomicLong droppedCount = new AtomicLong();
+    // до этого момента вызывающие потоки не пытаются писать в отказавшую базу
+    private volatile long retryAfter;
+
+    private static final class PendingWrite {
+        private GameInfo gameInfo;
+        // строки ещё нет в базе
+        private boolean insert;
+        private final CompletableFuture<Void> written = new CompletableFuture<>();
+
+        private PendingWrite(GameInfo gameInfo, boolean insert) {
+            this.gameInfo = gameInfo;
+            this.insert = insert;
+        }
+    }
+
+    public GameInfoWriterImpl(JdbcTemplate jdbcTemplate,
+                              TransactionOperations transactions,
+                              @Qualifier("taskExecutor") Executor executor,
+                              @Value("${chess.persistence.batch-size:500}") int batchSize,
+                              @Value("${chess.persistence.capacity:10000}") int capacity,
+                              @Value("${chess.persistence.max-pending:100000}") int maxPending,
+                              @Value("${chess.persistence.flush-ms:1000}") long retryDelayMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactions = transactions;
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.capacity = capacity;
+        this.maxPending = maxPending;
+        this.retryDelayMillis = retryDelayMillis;
+    }
+
+    public CompletableFuture<Void> insertLater(GameInfo gameInfo) {
+        return enqueue(gameInfo, true);
+    }
+
+    public CompletableFuture<Void> saveLater(GameInfo gameInfo) {
+        return enqueue(gameInfo, false);
+    }
+
+    private CompletableFuture<Void> enqueue(GameInfo gameInfo, boolean insert) {
+        PendingWrite write;
+        int size;
+        List<PendingWrite> overflow;
+        synchronized (this) {
+            write = pending.computeIfAbsent(gameInfo.getId(), id -> new PendingWrite(gameInfo, insert));
+            write.gameInfo = gameInfo;
+            overflow = trimOverflow();
+            size = pending.size();
+        }
+        dropOverflow(overflow);
+        if (System.currentTimeMillis() < retryAfter) {
+            return write.written;
+        }
+        if (size >= capacity) {
+            flush();
+        } else if (size >= batchSize && flushRequested.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> {
+                    flushRequested.set(false);
+                    flush();
+                });
+            } catch (RuntimeException e) {
+                // иначе флаг остался бы поднятым и фоновый сброс больше не запускался бы
+                flushRequested.set(false);
+                logger.warn("Фоновый сброс итогов не запущен, ждём планового: {}", e.getMessage());
+            }
+        }
+        return write.written;
+    }
+
+    @Scheduled(fixedDelayString = "${chess.persistence.flush-ms:1000}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        int written = flush();
+        logger.info("Перед остановкой записано итогов партий: {}, не записано: {}", written, getPendingCount());
+    }
+
+    // пишет всё, что накопилось к началу сброса; сбросы не пересекаются
+    public int flush() {
+        synchronized (flushLock) {
+            List<PendingWrite> batch;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    return 0;
+                }
+                batch = new ArrayList<>(pending.values());
+                pending.clear();
+            }
+            try {
+                write(batch);
+                batch.forEach(write -> write.written.complete(null));
+                retryAfter = 0;
+                return batch.size();
+            } catch (RuntimeException e) {
+                logger.warn("Пачка из {} партий не записана, пишем по одной", batch.size(), e);
+            }
+            return writeOneByOne(batch);
+        }
+    }
+
+    private int writeOneByOne(List<PendingWrite> batch) {
+        int written = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            PendingWrite write = batch.get(i);
+            try {
+                write(List.of(write));
+                write.written.complete(null);
+                written++;
+            } catch (RuntimeException e) {
+                if (isRejectedRow(e)) {
+                    drop(write, e);
+                    continue;
+                }
+                logger.error("Не удалось записать {} партий, повтор при следующем сбросе", batch.size() - i, e);
+                retryAfter = System.currentTimeMillis() + retryDelayMillis;
+                requeue(batch.subList(i, batch.size()));
+                break;
+            }
+        }
+        if (written > 0) {
+            retryAfter = 0;
+        }
+        return written;
+    }
+
+    // одна транзакция: новые партии пачкой INSERT, итоги - пачкой UPDATE
+    private void write(List<PendingWrite> batch) {
+        List<PendingWrite> inserts = batch.stream().filter(write -> write.insert).toList();
+        List<PendingWrite> updates = batch.stream().filter(write -> !write.insert).toList();
+        transactions.executeWithoutResult(status -> {
+            if (!inserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_GAME, inserts, batchSize, (statement, write) -> {
+                    GameInfo gameInfo = write.gameInfo;
+                    statement.setLong(1, gameInfo.getId());
+                    statement.setObject(2, gameInfo.getStartTime());
+                    statement.setObject(3, gameInfo.getEndTime());
+                    statement.setObject(4, playerId(gameInfo.getWhitePlayer()), Types.BIGINT);
+                    statement.setObject(5, playerId(gameInfo.getBlackPlayer()), Types.BIGINT);
+                    statement.setString(6, gameInfo.getStatus());
+                    statement.setString(7, gameInfo.getNotes());
+                });
+            }
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_RESULT, updates, batchSize, (statement, write) -> {
+                    statement.setObject(1, write.gameInfo.getEndTime());
+                    statement.setString(2, write.gameInfo.getStatus());
+                    statement.setString(3, write.gameInfo.getNotes());
+                    statement.setLong(4, write.gameInfo.getId());
+                });
+            }
+        });
+    }
+
+    // база работает, но отвергает саму строку: повтор ничего не изменит
+    private static boolean isRejectedRow(RuntimeException e) {
+        return e instanceof NonTransientDataAccessException
+                && !(e instanceof NonTransientDataAccessResourceException);
+    }
+
+    // несостоявшиеся записи встают в начало очереди: они старше всего, что пришло во время сброса.
+    // Более свежий итог той же партии не затирается, но наследует несостоявшийся INSERT,
+    // а его запись завершит и ожидание старого
+    private void requeue(List<PendingWrite> failed) {
+        List<PendingWrite> overflow;
+        synchronized (this) {
+            Map<Long, PendingWrite> merged = new LinkedHashMap<>();
+            for (PendingWrite write : failed) {
+                merged.put(write.gameInfo.getId(), write);
+            }
+            for (PendingWrite newer : pending.values()) {
+                PendingWrite older = merged.put(newer.gameInfo.getId(), newer);
+                if (older != null) {
+                    newer.insert |= older.insert;
+                    newer.written.whenComplete((result, error) -> {
+                        if (error == null) {
+                            older.written.complete(null);
+                        } else {
+                            older.written.completeExceptionally(error);
+                        }
+                    });
+                }
+            }
+            pending.clear();
+            pending.putAll(merged);
+            overflow = trimOverflow();
+        }
+        dropOverflow(overflow);
+    }
+
+    // под монитором писателя: самые старые записи сверх max-pending
+    private List<PendingWrite> trimOverflow() {
+        if (pending.size() <= maxPending) {
+            return List.of();
+        }
+        List<PendingWrite> overflow = new ArrayList<>();
+        Iterator<PendingWrite> oldest = pending.values().iterator();
+        while (pending.size() > maxPending) {
+            overflow.add(oldest.next());
+            oldest.remove();
+        }
+        return overflow;
+    }
+
+    private void dropOverflow(List<PendingWrite> overflow) {
+        for (PendingWrite write : overflow) {
+            drop(write, new IllegalStateException("Очередь записи итогов переполнена: " + maxPending));
+        }
+    }
+
+    // журнал ошибок: строка остаётся в логе, чтобы итог можно было восстановить вручную
+    private void drop(PendingWrite write, RuntimeException cause) {
+        GameInfo gameInfo = write.gameInfo;
+        droppedCount.incrementAndGet();
+        logger.error("Итог партии {} отброшен ({}): status={}, endTime={}, notes={}", gameInfo.getId(),
+                cause.getMessage(), gameInfo.getStatus(), gameInfo.getEndTime(), gameInfo.getNotes());
+        write.written.completeExceptionally(cause);
+    }
+
+    private static Long playerId(Player player) {
+        return player == null ? null : player.getId();
+    }
+
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+}
@@ -1,40 +1,559 @@
 package com.example.chess.service.implementation;
 
+import com.example.chess.config.BinaryMoveConverter;
+import com.example.chess.dto.response.GameReplayResponse;
+import com.example.chess.dto.response.GameStateResponse;
+import com.example.chess.dto.response.LiveGamesResponse;
+import com.example.chess.dto.response.MoveRejectedResponse;
+import com.example.chess.dto.response.MoveResponse;
+import com.example.chess.engine.Bitboards;
+import com.example.chess.engine.Board;
+import com.example.chess.engine.Fen;
+import com.example.chess.engine.Move;
+import com.example.chess.engine.MoveResult;
+import com.example.chess.engine.pieces.Color;
+import com.example.chess.engine.pieces.PieceType;
+import com.example.chess.entity.GameInfo;
 import com.example.chess.entity.Player;
+import com.example.chess.exception.game.IllegalMove;
+import com.example.chess.journal.JournaledGame;
+import com.example.chess.journal.MoveJournal;
 import com.example.chess.repository.GameInfoRepository;
+import com.example.chess.search.ParallelSearch;
+import com.example.chess.search.SearchLimits;
+import com.example.chess.search.SearchResult;
 import com.example.chess.service.GameManagerService;
 import com.example.chess.service.GameService;
+import com.example.chess.service.OpeningBookService;
+import com.example.chess.tablebase.Tablebase;
+import com.example.chess.utils.EventRing;
+import com.example.chess.utils.Mailbox;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 @Service
 public class GameManagerServiceImpl implements GameManagerService {
+    private static final long BOT_PLAYER_ID = 0;
+    // ход бота, сорвавшийся из-за ошибки поиска или переполненного пула, повторяется один раз
+    private static final int BOT_MOVE_ATTEMPTS = 2;
+    private static final String REASON_GAME_NOT_ACTIVE = "GAME_NOT_ACTIVE";
+    private static final String REASON_NOT_A_PLAYER = "NOT_A_PLAYER";
+    private static final String REASON_NO_DRAW_TO_CLAIM = "NO_DRAW_TO_CLAIM";
+    // координаты в отказе, который относится не к ходу, а к требованию ничьей
+    private static final int NO_SQUARE = -1;
 
     private final Map<Long, GameService> activeGames = new ConcurrentHashMap<>();
+    // у каждой активной партии свой почтовый ящик: всё, что меняет партию, выполняется в нём
+    private final Map<Long, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    // время последнего хода или попытки хода в партии, по нему закрываются брошенные партии
+    private final Map<Long, Long> lastActivity = new ConcurrentHashMap<>();
+    private final AtomicLong evictedGames = new AtomicLong();
+    // последние разосланные ходы партии для переподключившихся клиентов; меняются в ящике партии
+    private final Map<Long, EventRing<MoveResponse>> recentMoves = new ConcurrentHashMap<>();
+    // партии против бота: id игры -> цвет, за который играет бот
+    private final Map<Long, Color> botGames = new ConcurrentHashMap<>();
     private final GameInfoRepository gameInfoRepository;
     private final ApplicationContext applicationContext;
+    private final Executor gameExecutor;
+    private final Executor botExecutor;
+    private final ParallelSearch botSearch;
+    private final OpeningBookService openingBookService;
+    private final Tablebase tablebase;
+    private final MoveJournal journal;
+    private final SearchLimits botLimits;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final long idleTimeoutMillis;
+    private final int replayMoves;
+    private final boolean binaryMoves;
 
     private final Logger logger = LoggerFactory.getLogger(GameManagerServiceImpl.class);
 
     public GameManagerServiceImpl(GameInfoRepository gameInfoRepository,
-                                  ApplicationContext applicationContext) {
+                                  ApplicationContext applicationContext,
+                                  @Qualifier("gameExecutor") Executor gameExecutor,
+                                  @Qualifier("botExecutor") Executor botExecutor,
+                                  @Qualifier("botSearch") ParallelSearch botSearch,
+                                  OpeningBookService openingBookService,
+                                  Tablebase tablebase,
+                                  MoveJournal journal,
+                                  SimpMessagingTemplate messagingTemplate,
+                                  @Value("${chess.bot.max-depth:64}") int botMaxDepth,
+                                  @Value("${chess.bot.max-nodes:2000000}") long botMaxNodes,
+                                  @Value("${chess.bot.time-ms:1000}") long botTimeMillis,
+                                  @Value("${chess.game.idle-timeout-ms:1800000}") long idleTimeoutMillis,
+                                  @Value("${chess.game.replay-moves:64}") int replayMoves,
+                                  @Value("${chess.stomp.binary.enabled:false}") boolean binaryMoves) {
         this.gameInfoRepository = gameInfoRepository;
         this.applicationContext = applicationContext;
+        this.gameExecutor = gameExecutor;
+        this.botExecutor = botExecutor;
+        this.botSearch = botSearch;
+        this.openingBookService = openingBookService;
+        this.tablebase = tablebase;
+        this.journal = journal;
+        this.messagingTemplate = messagingTemplate;
+        this.botLimits = new SearchLimits(botMaxDepth, botMaxNodes, botTimeMillis);
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        // 0 - переподключившийся клиент всегда получает снимок партии
+        if (replayMoves < 0) {
+            throw new IllegalArgumentException("chess.game.replay-moves must not be negative: " + replayMoves);
+        }
+        this.replayMoves = replayMoves;
+        this.binaryMoves = binaryMoves;
     }
 
     public Long createGame(Player whitePlayer, Player blackPlayer) {
+        return startGame(whitePlayer, blackPlayer, null);
+    }
+
+    // место бота в GameInfo остаётся пустым; если бот играет белыми, он сразу делает первый ход
+    public Long createBotGame(Player player, Color playerColor) {
+        Color botColor = playerColor.opposite();
+        Long gameId = playerColor == Color.WHITE
+                ? startGame(player, null, botColor)
+                : startGame(null, player, botColor);
+        logger.info("Игра {} - против бота, бот играет за {}", gameId, botColor);
+        if (playerColor == Color.BLACK) {
+            playBotMove(gameId);
+        }
+        return gameId;
+    }
+
+    private long startGame(Player whitePlayer, Player blackPlayer, Color botColor) {
         logger.info("Начинаем создавать игру");
         GameService gameService = applicationContext.getBean(GameService.class);
         long gameId = gameService.initGame(whitePlayer, blackPlayer);
         logger.info("Создали игру с id {}", gameId);
-        activeGames.put(gameId, gameService);
+        journal.gameStarted(gameId, whitePlayer == null ? 0 : whitePlayer.getId(),
+                blackPlayer == null ? 0 : blackPlayer.getId(), botColor);
+        register(gameId, gameService, new Mailbox(gameExecutor), botColor);
         return gameId;
     }
 
+    private void register(long gameId, GameService game, Mailbox mailbox, Color botColor) {
+        mailboxes.put(gameId, mailbox);
+        lastActivity.put(gameId, System.currentTimeMillis());
+        // восстановленная партия продолжает нумерацию ходов, но ходы до перезапуска не хранятся
+        recentMoves.put(gameId, new EventRing<>(replayMoves, game.getMoveCount()));
+        if (botColor != null) {
+            botGames.put(gameId, botColor);
+        }
+        activeGames.put(gameId, game);
+    }
+
+    // слушатель ничего не возвращает: результат метода Spring опубликовал бы как новое событие
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverGames() {
+        recoverJournaledGames();
+    }
+
+    // партии, прерванные перезапуском, доигрываются из журнала ходов - каждая в своём ящике,
+    // так что разные партии восстанавливаются параллельно на общем пуле. Возвращает число
+    // восстановленных партий
+    public int recoverJournaledGames() {
+        List<JournaledGame> journaled;
+        try {
+            journaled = journal.recover();
+        } catch (IOException e) {
+            logger.error("Не удалось прочитать журнал ходов", e);
+            return 0;
+        }
+        List<CompletableFuture<Boolean>> restored = new ArrayList<>();
+        for (JournaledGame game : journaled) {
+            Mailbox mailbox = new Mailbox(gameExecutor);
+            restored.add(mailbox.call(() -> restoreGame(game, mailbox)));
+        }
+        int count = 0;
+        for (CompletableFuture<Boolean> result : restored) {
+            if (result.exceptionally(e -> {
+                logger.error("Партия из журнала не восстановлена", e);
+                return false;
+            }).join()) {
+                count++;
+            }
+        }
+        if (!journaled.isEmpty()) {
+            logger.info("Из журнала ходов восстановлено партий: {} из {}", count, journaled.size());
+        }
+        return count;
+    }
+
+    // выполняется в ящике восстанавливаемой партии, до того как партия станет видна игрокам
+    private boolean restoreGame(JournaledGame journaled, Mailbox mailbox) {
+        long gameId = journaled.getGameId();
+        GameInfo gameInfo = gameInfoRepository.findById(gameId).orElse(null);
+        boolean persisted = gameInfo != null;
+        if (!persisted) {
+            gameInfo = journaledGameInfo(journaled);
+        }
+        GameService game = applicationContext.getBean(GameService.class);
+        game.restoreGame(gameInfo, persisted);
+        for (int move : journaled.getMoves()) {
+            MoveResult result = game.tryMove(move);
+            if (!result.isOk()) {
+                logger.warn("Игра {}: ход {} из журнала не применился ({}), партия восстановлена до него",
+                        gameId, Move.toString(move), result);
+                break;
+            }
+        }
+        game.refreshStatus();
+        if (game.isFinished()) {
+            game.endOfGame().thenRun(() -> journal.gameEnded(gameId));
+            return false;
+        }
+
+        register(gameId, game, mailbox, journaled.getBotColor());
+        Color whoMove = game.getBoard().isWhiteToMove() ? Color.WHITE : Color.BLACK;
+        if (whoMove == journaled.getBotColor()) {
+            playBotMove(gameId);
+        }
+        return true;
+    }
+
+    public boolean isBotGame(long gameId) {
+        return botGames.containsKey(gameId);
+    }
+
+    // снимок доски берётся в ящике партии, поиск идёт в пуле бота (сначала дебютная книга),
+    // готовый ход снова отправляется в ящик партии и применяется там по очереди с ходами игрока.
+    // Вызывающие не ждут результата, поэтому сбой обрабатывается здесь же: ход повторяется,
+    // а если бот так и не сходил, партия закрывается как брошенная, чтобы не ждать его вечно
+    public CompletableFuture<Integer> playBotMove(long gameId) {
+        return playBotMove(gameId, 1);
+    }
+
+    private CompletableFuture<Integer> playBotMove(long gameId, int attempt) {
+        GameService game = getActiveGame(gameId);
+        Mailbox mailbox = mailboxes.get(gameId);
+        if (game == null || mailbox == null || !isBotGame(gameId)) {
+            return CompletableFuture.completedFuture(Move.NONE);
+        }
+
+        return mailbox.call(() -> isBotTurn(gameId, game) ? new Board(game.getBoard()) : null)
+                .thenApplyAsync(snapshot -> snapshot == null ? Move.NONE : chooseBotMove(gameId, snapshot),
+                        botExecutor)
+                .thenCompose(move -> move == Move.NONE
+                        ? CompletableFuture.completedFuture(Move.NONE)
+                        : mailbox.call(() -> applyBotMove(gameId, game, move)))
+                .exceptionallyCompose(e -> {
+                    if (attempt < BOT_MOVE_ATTEMPTS) {
+                        logger.warn("Бот в игре {} не сделал ход (попытка {}), повторяем", gameId, attempt, e);
+                        return playBotMove(gameId, attempt + 1);
+                    }
+                    logger.error("Бот в игре {} не сделал ход, партия закрывается", gameId, e);
+                    return mailbox.call(() -> {
+                        if (activeGames.get(gameId) == game && isBotTurn(gameId, game)) {
+                            game.abandon();
+                            finishGame(gameId, game);
+                        }
+                        return Move.NONE;
+                    });
+                });
+    }
+
+    // выполняется в ящике партии; повтор после сбоя не должен сходить за бота второй раз
+    private boolean isBotTurn(long gameId, GameService game) {
+        Color whoMove = game.getBoard().isWhiteToMove() ? Color.WHITE : Color.BLACK;
+        return !game.isFinished() && whoMove == botGames.get(gameId);
+    }
+
+    private int chooseBotMove(long gameId, Board snapshot) {
+        int move = openingBookService.findMove(snapshot);
+        if (move != Move.NONE) {
+            logger.info("Бот в игре {}: {} из дебютной книги", gameId, Move.toString(move));
+            return move;
+        }
+        SearchResult result = botSearch.search(snapshot, botLimits);
+        logger.info("Бот в игре {}: {}", gameId, result);
+        return result.getBestMove();
+    }
+
+    // выполняется в ящике партии
+    private int applyBotMove(long gameId, GameService game, int move) {
+        // партия могла закончиться, пока бот думал
+        if (activeGames.get(gameId) != game || !isBotTurn(gameId, game)) {
+            return Move.NONE;
+        }
+        try {
+            game.makeMove(move);
+        } catch (IllegalMove e) {
+            throw new CompletionException(e);
+        }
+        journal.moveMade(gameId, move);
+        publishMove(gameId, game, BOT_PLAYER_ID, Bitboards.fileOf(Move.from(move)),
+                Bitboards.rankOf(Move.from(move)), Bitboards.fileOf(Move.to(move)),
+                Bitboards.rankOf(Move.to(move)));
+        return move;
+    }
+
+    // ход игрока ставится в почтовый ящик партии и там проверяется и применяется к живой доске:
+    // ходы одной партии обрабатываются и рассылаются строго по очереди без блокировок,
+    // разные партии - параллельно на общем пуле. Рассылается только принятый ход,
+    // отклонённый - причина уходит самому игроку
+    public CompletableFuture<Boolean> submitMove(long gameId, long playerId,
+                                                 int startX, int startY, int endX, int endY) {
+        return submitMove(gameId, playerId, startX, startY, endX, endY, null);
+    }
+
+    // promotion = null - пешка, дошедшая до последней горизонтали, становится ферзём
+    public CompletableFuture<Boolean> submitMove(long gameId, long playerId,
+                                                 int startX, int startY, int endX, int endY, PieceType promotion) {
+        GameService game = getActiveGame(gameId);
+        Mailbox mailbox = mailboxes.get(gameId);
+        if (game == null || mailbox == null) {
+            reject(gameId, playerId, startX, startY, endX, endY, REASON_GAME_NOT_ACTIVE);
+            return CompletableFuture.completedFuture(false);
+        }
+        lastActivity.computeIfPresent(gameId, (id, last) -> System.currentTimeMillis());
+        return mailbox.call(() -> applyMove(gameId, game, playerId, startX, startY, endX, endY, promotion));
+    }
+
+    // выполняется в ящике партии
+    private boolean applyMove(long gameId, GameService game, long playerId,
+                              int startX, int startY, int endX, int endY, PieceType promotion) {
+        String reason = null;
+        Color color = game.getPlayerColor(playerId);
+        if (activeGames.get(gameId) != game) {
+            reason = REASON_GAME_NOT_ACTIVE;
+        } else if (color == null) {
+            reason = REASON_NOT_A_PLAYER;
+        } else if (color != (game.getBoard().isWhiteToMove() ? Color.WHITE : Color.BLACK)) {
+            reason = MoveResult.NOT_YOUR_TURN.name();
+        } else {
+            MoveResult result = game.tryMove(startX, startY, endX, endY, promotion);
+            if (!result.isOk()) {
+                reason = result.name();
+            }
+        }
+        if (reason != null) {
+            reject(gameId, playerId, startX, startY, endX, endY, reason);
+            return false;
+        }
+        journal.moveMade(gameId, game.getBoard().getLastMove());
+        publishMove(gameId, game, playerId, startX, startY, endX, endY);
+
+        if (isBotGame(gameId)) {
+            playBotMove(gameId);
+        }
+        return true;
+    }
+
+    // выполняется в ящике партии: статус после хода, рассылка и, если партия
+    // закончилась, сохранение итога. В партиях с ботом ничью фиксируют и эндшпильные таблицы.
+    // Рассылается только сам ход с номером и фигурой превращения, взятой из последнего хода доски;
+    // всю доску подписчик получает снимком из getGameState
+    private void publishMove(long gameId, GameService game, long playerId,
+                             int startX, int startY, int endX, int endY) {
+        String promotion = Move.promotionLetter(Move.promotion(game.getBoard().getLastMove()));
+        game.refreshStatus();
+        if (!game.isFinished() && isBotGame(gameId) && !tablebase.isEmpty()) {
+            game.isTablebaseDraw(tablebase);
+        }
+        Color whoMove = game.getBoard().isWhiteToMove() ? Color.WHITE : Color.BLACK;
+        MoveResponse response = new MoveResponse(gameId, game.getMoveCount(), playerId,
+                startX, startY, endX, endY, promotion, game.getStatus(), game.isCheck(whoMove), game.isFinished());
+        recentMoves.get(gameId).add(response.getSeq(), response);
+        messagingTemplate.convertAndSend("/topic/game/" + gameId + "/move", response);
+        if (binaryMoves) {
+            // тот же ход для подписчиков двоичного формата: кодируется один раз на всех
+            messagingTemplate.convertAndSend("/topic/game/" + gameId + "/move/binary", response, binaryHeaders());
+        }
+        if (game.isFinished()) {
+            finishGame(gameId, game);
+            logger.info("Игра {} завершена: {}", gameId, game.getStatus());
+        }
+    }
+
+    private void reject(long gameId, long playerId, int startX, int startY, int endX, int endY,
+                        String reason) {
+        logger.info("Ход отклонён в игре {} от игрока {}: {}", gameId, playerId, reason);
+        messagingTemplate.convertAndSend("/topic/" + playerId + "/game/" + gameId + "/rejected",
+                new MoveRejectedResponse(gameId, startX, startY, endX, endY, reason));
+    }
+
+    // требование ничьей по троекратному повторению или правилу 50 ходов проверяется в ящике
+    // партии - после ходов, поставленных в очередь раньше. Принятая ничья завершает партию,
+    // и её снимок рассылается в /topic/game/{gameId}/finished; отказ уходит игроку тем же
+    // каналом, что и отклонённый ход, без координат
+    public CompletableFuture<Boolean> claimDraw(long gameId, long playerId) {
+        GameService game = getActiveGame(gameId);
+        Mailbox mailbox = mailboxes.get(gameId);
+        if (game == null || mailbox == null) {
+            reject(gameId, playerId, NO_SQUARE, NO_SQUARE, NO_SQUARE, NO_SQUARE, REASON_GAME_NOT_ACTIVE);
+            return CompletableFuture.completedFuture(false);
+        }
+        return mailbox.call(() -> {
+            String reason = null;
+            if (activeGames.get(gameId) != game) {
+                reason = REASON_GAME_NOT_ACTIVE;
+            } else if (game.getPlayerColor(playerId) == null) {
+                reason = REASON_NOT_A_PLAYER;
+            } else if (!game.claimDraw()) {
+                reason = REASON_NO_DRAW_TO_CLAIM;
+            }
+            if (reason != null) {
+                reject(gameId, playerId, NO_SQUARE, NO_SQUARE, NO_SQUARE, NO_SQUARE, reason);
+                return false;
+            }
+            messagingTemplate.convertAndSend("/topic/game/" + gameId + "/finished", snapshot(gameId, game));
+            finishGame(gameId, game);
+            logger.info("Игра {} завершена по требованию игрока {}: {}", gameId, playerId, game.getStatus());
+            return true;
+        });
+    }
+
+    // итог партии сохраняется в её ящике - после ходов, поставленных в очередь раньше
+    public CompletableFuture<Boolean> endGame(long gameId) {
+        GameService game = getActiveGame(gameId);
+        Mailbox mailbox = mailboxes.get(gameId);
+        if (game == null || mailbox == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return mailbox.call(() -> finishGame(gameId, game));
+    }
+
+    // снимок снимается в ящике партии, поэтому его seq точно соответствует доске: ходы,
+    // рассылаемые после него, имеют больший номер. Для неактивной партии - null
+    public CompletableFuture<GameStateResponse> getGameState(long gameId) {
+        GameService game = getActiveGame(gameId);
+        Mailbox mailbox = mailboxes.get(gameId);
+        if (game == null || mailbox == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return mailbox.call(() -> snapshot(gameId, game));
+    }
+
+    // выполняется в ящике партии
+    private static GameStateResponse snapshot(long gameId, GameService game) {
+        Color whoMove = game.getBoard().isWhiteToMove() ? Color.WHITE : Color.BLACK;
+        return new GameStateResponse(gameId, game.getMoveCount(), Fen.toFen(game.getBoard()),
+                game.getStatus(), whoMove.name(), game.isCheck(whoMove), game.isFinished());
+    }
+
+    // переподключение: ходы после lastSeq из кольца партии, а если они уже вытеснены
+    // (или клиент знает номер, которого нет на сервере) - один снимок. Для неактивной партии - null
+    public CompletableFuture<GameReplayResponse> replayMoves(long gameId, long lastSeq) {
+        GameService game = getActiveGame(gameId);
+        Mailbox mailbox = mailboxes.get(gameId);
+        if (game == null || mailbox == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return mailbox.call(() -> {
+            EventRing<MoveResponse> ring = recentMoves.get(gameId);
+            // партия закончилась, пока запрос ждал в ящике
+            if (ring == null) {
+                return null;
+            }
+            List<MoveResponse> missed = ring.since(lastSeq);
+            return missed != null
+                    ? new GameReplayResponse(gameId, missed, null)
+                    : new GameReplayResponse(gameId, List.of(), snapshot(gameId, game));
+        });
+    }
+
+    private static Map<String, Object> binaryHeaders() {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+        accessor.setContentType(BinaryMoveConverter.MIME_TYPE);
+        accessor.setLeaveMutable(true);
+        return accessor.getMessageHeaders();
+    }
+
+    // строка новой партии пишется отложенно и могла не дойти до базы до сбоя
+    private static GameInfo journaledGameInfo(JournaledGame journaled) {
+        GameInfo gameInfo = new GameInfo();
+        gameInfo.setId(journaled.getGameId());
+        gameInfo.setWhitePlayer(playerReference(journaled.getWhitePlayerId()));
+        gameInfo.setBlackPlayer(playerReference(journaled.getBlackPlayerId()));
+        gameInfo.setStartTime(LocalDateTime.now());
+        gameInfo.setEndTime(LocalDateTime.now());
+        return gameInfo;
+    }
+
+    // для партии нужен только id игрока; 0 - место бота
+    private static Player playerReference(long playerId) {
+        if (playerId == 0) {
+            return null;
+        }
+        Player player = new Player();
+        player.setId(playerId);
+        return player;
+    }
+
+    // выполняется в ящике партии; задачи, оставшиеся в ящике, увидят, что партия уже не активна
+    private boolean finishGame(long gameId, GameService game) {
+        if (!activeGames.remove(gameId, game)) {
+            return false;
+        }
+        botGames.remove(gameId);
+        mailboxes.remove(gameId);
+        lastActivity.remove(gameId);
+        recentMoves.remove(gameId);
+        // END в журнал - только когда итог уже в базе, иначе сбой между ними потерял бы партию
+        game.endOfGame().thenRun(() -> journal.gameEnded(gameId));
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${chess.game.eviction-interval-ms:60000}")
+    public void evictIdleGames() {
+        evictIdleGames(System.currentTimeMillis());
+    }
+
+    // партии без ходов дольше chess.game.idle-timeout-ms закрываются как брошенные, а законченные,
+    // но почему-то оставшиеся в памяти, просто освобождаются. Итог сохраняет endOfGame в ящике партии;
+    // ход, успевший встать в очередь раньше, обновит время активности, и партия останется
+    public int evictIdleGames(long now) {
+        int scheduled = 0;
+        for (Map.Entry<Long, Long> entry : lastActivity.entrySet()) {
+            long gameId = entry.getKey();
+            GameService game = getActiveGame(gameId);
+            Mailbox mailbox = mailboxes.get(gameId);
+            if (game == null || mailbox == null || now - entry.getValue() < idleTimeoutMillis) {
+                continue;
+            }
+            mailbox.execute(() -> {
+                Long last = lastActivity.get(gameId);
+                if (last == null || now - last < idleTimeoutMillis) {
+                    return;
+                }
+                game.abandon();
+                if (finishGame(gameId, game)) {
+                    evictedGames.incrementAndGet();
+                    logger.info("Игра {} закрыта после {} мс без ходов: {}", gameId, now - last, game.getStatus());
+                }
+            });
+            scheduled++;
+        }
+        return scheduled;
+    }
+
+    // оценка читает доски вне их ящиков: для статистики неточность допустима
+    public LiveGamesResponse getLiveGames() {
+        long bytes = 0;
+        for (GameService game : activeGames.values()) {
+            bytes += game.estimatedBytes();
+        }
+        return new LiveGamesResponse(activeGames.size(), botGames.size(), evictedGames.get(), bytes);
+    }
+
     public GameService getActiveGame(long gameId) {
         return activeGames.containsKey(gameId) ? activeGames.get(gameId) : null;
     }
@@ -1,54 +1,89 @@
 package com.example.chess.service.implementation;
 
-import com.example.chess.engine.Allocation;
+import com.example.chess.engine.Bitboards;
 import com.example.chess.engine.Board;
 import com.example.chess.engine.GameAnalyzer;
+import com.example.chess.engine.Move;
+import com.example.chess.engine.MoveGenerator;
+import com.example.chess.engine.MoveList;
+import com.example.chess.engine.MoveResult;
 import com.example.chess.engine.pieces.Color;
 import com.example.chess.engine.pieces.Piece;
+import com.example.chess.engine.pieces.PieceType;
 import com.example.chess.entity.GameInfo;
 import com.example.chess.entity.Player;
 import com.example.chess.exception.game.IllegalMove;
-import com.example.chess.repository.GameInfoRepository;
+import com.example.chess.service.GameIdAllocator;
+import com.example.chess.service.GameInfoWriter;
 import com.example.chess.service.GameService;
+import com.example.chess.tablebase.Tablebase;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import org.antlr.v4.runtime.misc.Pair;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Service;
 
 @Service
 @Scope("prototype")
 public class GameServiceImpl implements GameService {
+    private static final String IN_PROCESS = "In process";
+    private static final String ABANDONED = "Abandoned";
+    // GameInfo и два Player со строковыми полями
+    private static final long GAME_INFO_BYTES = 600;
+    // строка записи хода вроде "e4" или "Nxf7" вместе со ссылкой из списка
+    private static final long NOTE_BYTES = 52;
+
     Board board;
     GameInfo gameInfo;
     Player whitePlayer;
     Player blackPlayer;
     List<String> notes;
-    GameInfoRepository gameInfoRepository;
+    GameInfoWriter gameInfoWriter;
+    GameIdAllocator gameIdAllocator;
     String status;
 
-    public GameServiceImpl(GameInfoRepository gameInfoRepository) {
-        this.gameInfoRepository = gameInfoRepository;
+    public GameServiceImpl(GameInfoWriter gameInfoWriter, GameIdAllocator gameIdAllocator) {
+        this.gameInfoWriter = gameInfoWriter;
+        this.gameIdAllocator = gameIdAllocator;
     }
 
+    // id выдаётся из памяти, строка GameInfo пишется отложенно вместе с другими новыми партиями
+
     public long initGame(Player whitePlayer, Player blackPlayer) {
         this.board = new Board();
         this.whitePlayer = whitePlayer;
         this.blackPlayer = blackPlayer;
+        this.notes = new ArrayList<>();
         this.gameInfo = new GameInfo();
         this.gameInfo.setWhitePlayer(whitePlayer);
         this.gameInfo.setBlackPlayer(blackPlayer);
         this.gameInfo.setStartTime(LocalDateTime.now());
         this.gameInfo.setEndTime(LocalDateTime.now());
+        this.gameInfo.setId(gameIdAllocator.nextId());
 
-        this.gameInfo = gameInfoRepository.save(gameInfo);
+        gameInfoWriter.insertLater(gameInfo);
 
         this.board.setId(this.gameInfo.getId());
-        this.status = "In process";
+        this.status = IN_PROCESS;
         return gameInfo.getId();
     }
 
+    // партия, прерванная перезапуском: ходы доигрываются из журнала. GameInfo, не успевшая
+    // попасть в базу до сбоя, собрана из журнала и записывается заново
+    public void restoreGame(GameInfo gameInfo, boolean persisted) {
+        if (!persisted) {
+            gameInfoWriter.insertLater(gameInfo);
+        }
+        this.board = new Board();
+        this.gameInfo = gameInfo;
+        this.whitePlayer = gameInfo.getWhitePlayer();
+        this.blackPlayer = gameInfo.getBlackPlayer();
+        this.notes = new ArrayList<>();
+        this.board.setId(gameInfo.getId());
+        this.status = IN_PROCESS;
+    }
+
     public boolean isCheck(Color color) {
         return GameAnalyzer.isCheck(color, this.board);
     }
@@ -70,39 +105,134 @@ public class GameServiceImpl implements GameService {
         return false;
     }
 
+    public boolean isTablebaseDraw(Tablebase tablebase) {
+        if (GameAnalyzer.isTablebaseDraw(this.board, tablebase)) {
+            this.status = "Draw";
+            return true;
+        }
+        return false;
+    }
+
+    // ничья, которая наступает сама: 75 ходов или пятикратное повторение. Троекратное
+    // повторение и 50 ходов дают только право потребовать ничью - см. claimDraw
+    public boolean isDrawByRule() {
+        if (GameAnalyzer.isSeventyFiveMoveRule(this.board)) {
+            this.status = "Draw by 75-move rule";
+        } else if (GameAnalyzer.isFivefoldRepetition(this.board)) {
+            this.status = "Draw by fivefold repetition";
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    // ничья по требованию игрока: позиция повторилась трижды или 50 ходов прошли без взятий
+    // и ходов пешкой. Без оснований статус не меняется
+    public boolean claimDraw() {
+        if (isFinished()) {
+            return false;
+        }
+        if (GameAnalyzer.isThreefoldRepetition(this.board)) {
+            this.status = "Draw by repetition";
+        } else if (GameAnalyzer.isFiftyMoveRule(this.board)) {
+            this.status = "Draw by 50-move rule";
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    // статус после хода: мат, пат или ничья по правилам для стороны, которая теперь ходит
+    public String refreshStatus() {
+        Color whoMove = board.isWhiteToMove() ? Color.WHITE : Color.BLACK;
+        if (!isCheckmate(whoMove) && !isStalemate()) {
+            isDrawByRule();
+        }
+        return status;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    // число принятых ходов; после восстановления из журнала оно то же, что до перезапуска
+    public int getMoveCount() {
+        return notes.size();
+    }
+
+    public boolean isFinished() {
+        return !IN_PROCESS.equals(status);
+    }
+
+    // цвет игрока в этой партии или null, если он в ней не участвует
+    public Color getPlayerColor(long playerId) {
+        if (whitePlayer != null && whitePlayer.getId() == playerId) {
+            return Color.WHITE;
+        }
+        if (blackPlayer != null && blackPlayer.getId() == playerId) {
+            return Color.BLACK;
+        }
+        return null;
+    }
+
     public void makeMove(int startX, int startY, int endX, int endY) throws IllegalMove {
-        try {
-            board.movePiece(board.getPieceAt(startX, startY), endX, endY);
-        } catch (IllegalMove e) {
+        if (!tryMove(startX, startY, endX, endY).isOk()) {
+            throw new IllegalMove();
+        }
+    }
+
+    public void makeMove(int move) throws IllegalMove {
+        if (!tryMove(move).isOk()) {
             throw new IllegalMove();
         }
+    }
+
+    public MoveResult tryMove(int startX, int startY, int endX, int endY) {
+        return tryMove(startX, startY, endX, endY, null);
+    }
+
+    // promotion = null - пешка превращается в ферзя
+    public MoveResult tryMove(int startX, int startY, int endX, int endY, PieceType promotion) {
+        MoveResult result = board.tryMove(startX, startY, endX, endY, promotion);
+        if (result.isOk()) {
+            notes.add(board.toAnnotation(endX, endY));
+        }
+        return result;
+    }
 
-        notes.add(board.toAnnotation(endX, endY));
-        board.changeMove();
+    public MoveResult tryMove(int move) {
+        MoveResult result = board.tryMove(move);
+        if (result.isOk()) {
+            notes.add(board.toAnnotation(Bitboards.fileOf(Move.to(move)), Bitboards.rankOf(Move.to(move))));
+        }
+        return result;
     }
 
     public Piece[][] showBoard() {
         return board.getField();
     }
 
-    public List<Pair<Integer, Integer>> calculateMoves(Board board, Color color) {
-        List<Pair<Integer, Integer>> moves = new ArrayList<>();
-        for (int i = 0; i < 8; ++i) {
-            for (int j = 0; j < 8; ++j) {
-                if (board.getPieceAt(i, j).getColor() == color) {
-                    Allocation allocation = new Allocation(board.getPieceAt(i, j));
-                    moves.addAll(allocation.calculateAllMoves(board));
-                }
-            }
-        }
-        return moves;
+    public MoveList calculateMoves(Board board, Color color) {
+        return MoveGenerator.generateLegalMoves(board, color);
     }
 
-    public void endOfGame() {
+    // итог уходит в отложенную запись; future завершается, когда он записан в базу
+    public CompletableFuture<Void> endOfGame() {
         this.gameInfo.setEndTime(LocalDateTime.now());
         this.gameInfo.setStatus(this.status);
         this.gameInfo.setNotes(this.notes.toString());
-        gameInfoRepository.save(gameInfo);
+        return gameInfoWriter.saveLater(gameInfo);
+    }
+
+    // партия, в которой давно не ходили, закрывается сервером; итог сохраняет endOfGame
+    public void abandon() {
+        if (!isFinished()) {
+            this.status = ABANDONED;
+        }
+    }
+
+    public long estimatedBytes() {
+        return board.estimatedBytes() + GAME_INFO_BYTES + 16 + notes.size() * NOTE_BYTES;
     }
 
     public Board getBoard() {
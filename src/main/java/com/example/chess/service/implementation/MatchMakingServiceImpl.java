@@ -1,7 +1,9 @@
 package com.example.chess.service.implementation;
 
 import com.example.chess.dto.response.MatchFoundResponse;
+import com.example.chess.engine.pieces.Color;
 import com.example.chess.entity.Player;
+import com.example.chess.exception.ResourceNotFoundException;
 import com.example.chess.repository.PlayerRepository;
 import com.example.chess.service.GameManagerService;
 import com.example.chess.service.MatchMakingService;
@@ -109,6 +111,19 @@ public class MatchMakingServiceImpl implements MatchMakingService {
         lastPingTimes.remove(player2Id);
     }
 
+    // когда очередь пуста, игрок может сразу сесть за доску против бота (игрок - белыми)
+    @Transactional
+    public void playAgainstBot(Long playerId) {
+        Player player = playerRepository.findById(playerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Player not found"));
+        Long gameId = gameManagerService.createBotGame(player, Color.WHITE);
+
+        removePlayerFromQueue(playerId);
+        messagingTemplate.convertAndSend("/topic/" + playerId + "/matchmaking",
+                new MatchFoundResponse(gameId, "white"));
+        logger.info("Игрок {} начал игру {} против бота", playerId, gameId);
+    }
+
     private void notifyPlayers(Long whitePlayerId, Long blackPlayerId, Long gameId) {
 
         MatchFoundResponse whiteResponse = new MatchFoundResponse(gameId, "white");
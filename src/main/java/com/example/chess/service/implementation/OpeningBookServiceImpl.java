@@ -0,0 +1,73 @@
+package com.example.chess.service.implementation;
+
+import com.example.chess.engine.Board;
+import com.example.chess.engine.Move;
+import com.example.chess.exception.ValidationException;
+import com.example.chess.search.BookMove;
+import com.example.chess.search.OpeningBook;
+import com.example.chess.service.OpeningBookService;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+@Service
+public class OpeningBookServiceImpl implements OpeningBookService {
+
+    // замена книги - одна атомарная запись ссылки: текущие поиски дочитывают старое
+    // отображение, новые сразу идут в новую книгу
+    private final AtomicReference<OpeningBook> book = new AtomicReference<>();
+
+    private final Logger logger = LoggerFactory.getLogger(OpeningBookServiceImpl.class);
+
+    // книга читается только из настроенного пути: путь извне не принимается
+    private final String path;
+
+    public OpeningBookServiceImpl(@Value("${chess.book.path:}") String path) {
+        this.path = path;
+        if (!path.isBlank()) {
+            try {
+                reload();
+            } catch (ValidationException e) {
+                logger.warn("Дебютная книга не загружена: {}", e.getMessage());
+            }
+        }
+    }
+
+    public int findMove(Board board) {
+        OpeningBook current = book.get();
+        return current == null ? Move.NONE : current.pickMove(board, ThreadLocalRandom.current());
+    }
+
+    public List<BookMove> getMoves(Board board) {
+        OpeningBook current = book.get();
+        return current == null ? List.of() : current.lookup(board);
+    }
+
+    // перечитывает файл chess.book.path, например после его замены; подробности ошибки
+    // остаются в логе сервера, клиенту уходит только факт неудачи
+    public int reload() {
+        if (path.isBlank()) {
+            throw new ValidationException("Путь к дебютной книге не настроен");
+        }
+        OpeningBook next;
+        try {
+            next = OpeningBook.open(Path.of(path));
+        } catch (IOException | RuntimeException e) {
+            logger.error("Не удалось открыть дебютную книгу {}", path, e);
+            throw new ValidationException("Не удалось открыть дебютную книгу");
+        }
+        book.set(next);
+        logger.info("Загружена дебютная книга {}: {} записей", path, next.size());
+        return next.size();
+    }
+
+    public boolean isLoaded() {
+        return book.get() != null;
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.chess.tablebase;
+
+import com.example.chess.engine.Bitboards;
+import com.example.chess.engine.pieces.Color;
+import com.example.chess.engine.pieces.PieceType;
+
+// Раскладка одной таблицы: сигнатура вида KQKR (фигуры белых, затем чёрных), порядок фигур
+// в индексе и симметрия доски. Порядок: белый король, чёрный король, остальные фигуры белых,
+// затем чёрных в порядке ORDER.
+//
+// Индекс = слот белого короля * 64^(n-1) + клетки остальных фигур по 6 бит.
+// Без пешек доску можно отражать по вертикали и горизонтали - белый король в квадрате a1-d4
+// (16 слотов); с пешками только слева направо - белый король на вертикалях a-d (32 слота).
+final class TableLayout {
+    static final PieceType[] ORDER = {
+        PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.HORSE, PieceType.PAWN
+    };
+    static final String LETTERS = "QRBNP";
+    static final int MAX_PIECES = 4;
+
+    // по 3 бита на количество фигур каждого типа из ORDER, чёрные - старше на MATERIAL_SHIFT
+    static final int MATERIAL_SHIFT = 15;
+
+    // грубая стоимость фигур из ORDER - только чтобы выбрать, какая сторона в таблице белая
+    private static final int[] VALUES = {9, 5, 3, 3, 1};
+
+    final String signature;
+    final int pieceCount;
+    final Color[] colors;
+    final PieceType[] types;
+    final boolean hasPawns;
+    final int sideSize;
+    final int materialKey;
+
+    private TableLayout(String signature, Color[] colors, PieceType[] types) {
+        this.signature = signature;
+        this.pieceCount = types.length;
+        this.colors = colors;
+        this.types = types;
+        boolean pawns = false;
+        int key = 0;
+        for (int i = 2; i < types.length; i++) {
+            pawns |= types[i] == PieceType.PAWN;
+            key += 1 << (slot(types[i]) * 3 + (colors[i] == Color.WHITE ? 0 : MATERIAL_SHIFT));
+        }
+        this.hasPawns = pawns;
+        this.materialKey = key;
+        this.sideSize = (hasPawns ? 32 : 16) << (6 * (pieceCount - 1));
+    }
+
+    static TableLayout of(String signature) {
+        int blackKing = signature.indexOf('K', 1);
+        if (signature.isEmpty() || signature.charAt(0) != 'K' || blackKing < 0
+                || signature.length() > MAX_PIECES) {
+            throw new IllegalArgumentException("Unsupported tablebase signature: " + signature);
+        }
+
+        String white = sortPieces(signature.substring(1, blackKing));
+        String black = sortPieces(signature.substring(blackKing + 1));
+        Color[] colors = new Color[signature.length()];
+        PieceType[] types = new PieceType[signature.length()];
+        colors[0] = Color.WHITE;
+        types[0] = PieceType.KING;
+        colors[1] = Color.BLACK;
+        types[1] = PieceType.KING;
+        int index = 2;
+        for (char letter : (white + black).toCharArray()) {
+            colors[index] = index - 2 < white.length() ? Color.WHITE : Color.BLACK;
+            types[index] = ORDER[LETTERS.indexOf(letter)];
+            index++;
+        }
+        return new TableLayout("K" + white + "K" + black, colors, types);
+    }
+
+    static int slot(PieceType type) {
+        return switch (type) {
+            case QUEEN -> 0;
+            case ROOK -> 1;
+            case BISHOP -> 2;
+            case HORSE -> 3;
+            case PAWN -> 4;
+            case KING -> throw new IllegalArgumentException("King has no material slot");
+        };
+    }
+
+    // squares - клетки в порядке раскладки
+    int index(int[] squares) {
+        int whiteKing = squares[0];
+        int flip = 0;
+        if (Bitboards.fileOf(whiteKing) > 3) {
+            flip ^= 7;
+        }
+        if (!hasPawns && Bitboards.rankOf(whiteKing) > 3) {
+            flip ^= 56;
+        }
+
+        int king = whiteKing ^ flip;
+        int index = Bitboards.rankOf(king) * 4 + Bitboards.fileOf(king);
+        for (int i = 1; i < pieceCount; i++) {
+            index = index << 6 | (squares[i] ^ flip);
+        }
+        return index;
+    }
+
+    // обратное к index: клетки уже в каноническом положении
+    void decode(int index, int[] squares) {
+        for (int i = pieceCount - 1; i > 0; i--) {
+            squares[i] = index & 63;
+            index >>>= 6;
+        }
+        squares[0] = Bitboards.square(index & 3, index >>> 2);
+    }
+
+    static boolean isTriviallyDrawn(int materialKey) {
+        int minors = (1 << 6 | 1 << 9) * (1 | 1 << MATERIAL_SHIFT);
+        return materialKey == 0 || Integer.bitCount(materialKey) == 1 && (materialKey & minors) != 0;
+    }
+
+    static int flipMaterial(int materialKey) {
+        int mask = (1 << MATERIAL_SHIFT) - 1;
+        return (materialKey & mask) << MATERIAL_SHIFT | materialKey >>> MATERIAL_SHIFT;
+    }
+
+    // сильнейшая сторона - белые: по сумме стоимости фигур, при равенстве - по ключу
+    static int canonical(int materialKey) {
+        int mask = (1 << MATERIAL_SHIFT) - 1;
+        int flipped = flipMaterial(materialKey);
+        int whiteValue = value(materialKey & mask);
+        int blackValue = value(materialKey >>> MATERIAL_SHIFT);
+        if (whiteValue != blackValue) {
+            return whiteValue > blackValue ? materialKey : flipped;
+        }
+        return (materialKey & mask) >= (flipped & mask) ? materialKey : flipped;
+    }
+
+    static String signatureOf(int materialKey) {
+        return "K" + letters(materialKey & ((1 << MATERIAL_SHIFT) - 1)) + "K" + letters(materialKey >>> MATERIAL_SHIFT);
+    }
+
+    private static int value(int sideKey) {
+        int result = 0;
+        for (int slot = 0; slot < ORDER.length; slot++) {
+            result += ((sideKey >>> (slot * 3)) & 7) * VALUES[slot];
+        }
+        return result;
+    }
+
+    private static String letters(int sideKey) {
+        StringBuilder result = new StringBuilder();
+        for (int slot = 0; slot < ORDER.length; slot++) {
+            int count = (sideKey >>> (slot * 3)) & 7;
+            for (int i = 0; i < count; i++) {
+                result.append(LETTERS.charAt(slot));
+            }
+        }
+        return result.toString();
+    }
+
+    private static String sortPieces(String pieces) {
+        StringBuilder result = new StringBuilder();
+        for (char letter : LETTERS.toCharArray()) {
+            for (char piece : pieces.toCharArray()) {
+                if (piece == letter) {
+                    result.append(letter);
+                }
+            }
+        }
+        if (result.length() != pieces.length()) {
+            throw new IllegalArgumentException("Unknown piece letter in " + pieces);
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.chess.tablebase;
+
+import com.example.chess.engine.Board;
+import com.example.chess.engine.Move;
+import com.example.chess.engine.MoveGenerator;
+import com.example.chess.engine.MoveList;
+import com.example.chess.engine.pieces.Color;
+import com.example.chess.engine.pieces.PieceType;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// Эндшпильные таблицы до 4 фигур: для каждой позиции один байт со стороны того, кто ходит:
+//   0        - ничья (в том числе пат и недостижимые позиции)
+//   v > 0    - выигрыш, мат через v - 1 полуходов
+//   v < 0    - проигрыш, мат через -v - 1 полуходов (-1 - мат уже стоит)
+// Взятие на проходе и рокировка в таблицах не учитываются: с ними probe возвращает UNKNOWN.
+//
+// Файл: "CHTB", версия, число таблиц, затем оглавление (сигнатура 8 байт ASCII, смещение,
+// размер одной стороны) и данные - сначала позиции с ходом белых, затем с ходом чёрных.
+// Файл отображается в память целиком, каждая таблица - срез общего буфера.
+public final class Tablebase {
+    public static final int UNKNOWN = Integer.MIN_VALUE;
+    public static final int DRAW = 0;
+
+    private static final int MAGIC = 0x43485442;
+    private static final int VERSION = 1;
+    private static final int SIGNATURE_BYTES = 8;
+    private static final int DIRECTORY_ENTRY_BYTES = SIGNATURE_BYTES + 8 + 4;
+
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    private static final Tablebase EMPTY = new Tablebase(new Table[0]);
+
+    private final Table[] tables;
+
+    Tablebase(Table[] tables) {
+        this.tables = tables;
+    }
+
+    public static Tablebase empty() {
+        return EMPTY;
+    }
+
+    public static Tablebase open(Path path) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Tablebase file is too large: " + path);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a tablebase file: " + path);
+        }
+
+        int count = buffer.getInt(8);
+        Table[] tables = new Table[count];
+        for (int i = 0; i < count; i++) {
+            int entry = 12 + i * DIRECTORY_ENTRY_BYTES;
+            byte[] signature = new byte[SIGNATURE_BYTES];
+            buffer.get(entry, signature);
+            TableLayout layout = TableLayout.of(new String(signature, StandardCharsets.US_ASCII).trim());
+            long offset = buffer.getLong(entry + SIGNATURE_BYTES);
+            int sideSize = buffer.getInt(entry + SIGNATURE_BYTES + 8);
+            if (sideSize != layout.sideSize || offset + 2L * sideSize > buffer.capacity()) {
+                throw new IOException("Corrupted tablebase entry " + layout.signature + " in " + path);
+            }
+            tables[i] = new Table(layout, buffer.slice((int) offset, 2 * sideSize));
+        }
+        return new Tablebase(tables);
+    }
+
+    public void write(Path path) throws IOException {
+        long offset = 12L + (long) tables.length * DIRECTORY_ENTRY_BYTES;
+        ByteBuffer directory = ByteBuffer.allocate((int) offset);
+        directory.putInt(MAGIC).putInt(VERSION).putInt(tables.length);
+        for (Table table : tables) {
+            byte[] signature = String.format("%-8s", table.layout.signature)
+                    .getBytes(StandardCharsets.US_ASCII);
+            directory.put(signature).putLong(offset).putInt(table.layout.sideSize);
+            offset += 2L * table.layout.sideSize;
+        }
+        directory.flip();
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(channel, directory);
+            for (Table table : tables) {
+                writeFully(channel, table.data.duplicate().clear());
+            }
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public boolean isEmpty() {
+        return tables.length == 0;
+    }
+
+    public List<String> getSignatures() {
+        List<String> signatures = new ArrayList<>(tables.length);
+        for (Table table : tables) {
+            signatures.add(table.layout.signature);
+        }
+        return signatures;
+    }
+
+    public int maxPieces() {
+        return tables.length == 0 ? 0 : TableLayout.MAX_PIECES;
+    }
+
+    // значение позиции для стороны, которая ходит, или UNKNOWN, если таблицы нет
+    public int probe(Board board) {
+        if (Long.bitCount(board.getOccupied()) > TableLayout.MAX_PIECES
+                || board.getCastlingRights() != 0 || board.getEnPassantSquare() >= 0
+                || Long.bitCount(board.getPieces(Color.WHITE, PieceType.KING)) != 1
+                || Long.bitCount(board.getPieces(Color.BLACK, PieceType.KING)) != 1) {
+            return UNKNOWN;
+        }
+
+        int[] colors = new int[TableLayout.MAX_PIECES];
+        int[] types = new int[TableLayout.MAX_PIECES];
+        int[] squares = new int[TableLayout.MAX_PIECES];
+        int count = 0;
+        for (Color color : Color.values()) {
+            for (PieceType type : PieceType.values()) {
+                for (long pieces = board.getPieces(color, type); pieces != 0; pieces &= pieces - 1) {
+                    colors[count] = color.ordinal();
+                    types[count] = type.ordinal();
+                    squares[count] = Long.numberOfTrailingZeros(pieces);
+                    count++;
+                }
+            }
+        }
+        return probe(count, colors, types, squares, board.isWhiteToMove());
+    }
+
+    // лучший ход по таблицам: быстрейший мат, иначе ничья, иначе самое долгое сопротивление
+    public int bestMove(Board board) {
+        if (probe(board) == UNKNOWN) {
+            return Move.NONE;
+        }
+
+        MoveList moves = MoveGenerator.generateLegalMoves(board);
+        int bestMove = Move.NONE;
+        int bestRank = Integer.MIN_VALUE;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            board.makeMove(move);
+            int value = probe(board);
+            board.unmakeMove(move);
+            if (value == UNKNOWN) {
+                continue;
+            }
+            int rank = rank(-value);
+            if (rank > bestRank) {
+                bestRank = rank;
+                bestMove = move;
+            }
+        }
+        return bestMove;
+    }
+
+    // оценка для поиска: мат через N полуходов от текущего ply, как в Search
+    public static int score(int value, int ply, int mate) {
+        if (value > 0) {
+            return mate - ply - (value - 1);
+        }
+        if (value < 0) {
+            return -mate + ply + (-value - 1);
+        }
+        return 0;
+    }
+
+    // value с точки зрения ходящего после хода соперника, со знаком "нашего" выигрыша:
+    // выигрыш лучше ничьей, быстрый выигрыш лучше медленного, долгий проигрыш лучше быстрого
+    private static int rank(int value) {
+        if (value > 0) {
+            return 1000 - value;
+        }
+        if (value < 0) {
+            return -1000 - value;
+        }
+        return 0;
+    }
+
+    // colors/types - ordinal цвета и типа; порядок фигур произвольный
+    int probe(int count, int[] colors, int[] types, int[] squares, boolean whiteToMove) {
+        int material = 0;
+        for (int i = 0; i < count; i++) {
+            if (types[i] != PieceType.KING.ordinal()) {
+                material += 1 << (TableLayout.slot(PIECE_TYPES[types[i]]) * 3
+                        + (colors[i] == 0 ? 0 : TableLayout.MATERIAL_SHIFT));
+            }
+        }
+        if (TableLayout.isTriviallyDrawn(material)) {
+            return DRAW;
+        }
+
+        boolean flip = false;
+        Table table = find(material);
+        if (table == null) {
+            table = find(TableLayout.flipMaterial(material));
+            flip = true;
+        }
+        if (table == null) {
+            return UNKNOWN;
+        }
+
+        // после отражения цветов белые раскладки - это наши чёрные, доска переворачивается
+        int layoutWhite = flip ? 1 : 0;
+        int squareFlip = flip ? 56 : 0;
+        int[] ordered = new int[count];
+        int next = 2;
+        for (int i = 0; i < count; i++) {
+            if (types[i] == PieceType.KING.ordinal()) {
+                ordered[colors[i] == layoutWhite ? 0 : 1] = squares[i] ^ squareFlip;
+            }
+        }
+        for (int side = 0; side < 2; side++) {
+            int color = side == 0 ? layoutWhite : 1 - layoutWhite;
+            for (PieceType type : TableLayout.ORDER) {
+                for (int i = 0; i < count; i++) {
+                    if (colors[i] == color && types[i] == type.ordinal()) {
+                        ordered[next++] = squares[i] ^ squareFlip;
+                    }
+                }
+            }
+        }
+        return table.get(whiteToMove != flip, table.layout.index(ordered));
+    }
+
+    Table find(int materialKey) {
+        for (Table table : tables) {
+            if (table.layout.materialKey == materialKey) {
+                return table;
+            }
+        }
+        return null;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    static final class Table {
+        final TableLayout layout;
+        final ByteBuffer data;
+
+        Table(TableLayout layout, ByteBuffer data) {
+            this.layout = layout;
+            this.data = data;
+        }
+
+        int get(boolean whiteToMove, int index) {
+            return data.get(whiteToMove ? index : layout.sideSize + index);
+        }
+    }
+}
@@ -0,0 +1,505 @@
+package com.example.chess.tablebase;
+
+import com.example.chess.engine.Bitboards;
+import com.example.chess.engine.pieces.Color;
+import com.example.chess.engine.pieces.PieceType;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+// Построение таблиц ретроградным анализом по раундам: в раунде r позиция получает выигрыш
+// за r полуходов, если у соперника есть ход в проигрыш за r - 1, и проигрыш, если все ходы
+// ведут в уже известный выигрыш соперника. Взятия и превращения уводят в меньшие таблицы,
+// они строятся раньше (зависимости собираются рекурсивно).
+// В раунде разбираются не все позиции, а только кандидаты: предшественники позиций, решённых
+// в прошлом раунде (обратные ходы), и позиции, у которых в этом раунде срабатывает выход
+// в меньшую таблицу. Раунд идёт параллельно по кускам индекса: каждая позиция пишется только
+// своим потоком, метки кандидатов - идемпотентные записи байта, а значения текущего раунда
+// соседями не учитываются, поэтому гонки не меняют результат.
+//
+// Запуск: java ... TablebaseGenerator tablebase.bin [KQK KRK KPK ...]
+public final class TablebaseGenerator {
+    public static final List<String> DEFAULT_SIGNATURES = List.of(
+            "KQK", "KRK", "KPK", "KQKR", "KRKB", "KRKN", "KBNK", "KBBK", "KQKP", "KRKP");
+
+    private static final byte PENDING = Byte.MIN_VALUE;
+    private static final int MAX_VALUE = Byte.MAX_VALUE;
+    private static final int CHUNK = 1 << 14;
+    // режим обхода ходов при инициализации: считаются ходы и выходы в меньшие таблицы
+    private static final int INITIALIZE = -1;
+    private static final PieceType[] PROMOTIONS = {
+        PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.HORSE
+    };
+
+    private final List<Tablebase.Table> tables = new ArrayList<>();
+    private int maxPlies;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: TablebaseGenerator <output file> [signature ...]");
+            return;
+        }
+        List<String> signatures = args.length > 1
+                ? Arrays.asList(args).subList(1, args.length) : DEFAULT_SIGNATURES;
+
+        long start = System.nanoTime();
+        Tablebase tablebase = new TablebaseGenerator().generate(signatures);
+        tablebase.write(Path.of(args[0]));
+        System.out.printf("Generated %s in %d s%n", tablebase.getSignatures(),
+                (System.nanoTime() - start) / 1_000_000_000);
+    }
+
+    public Tablebase generate(String... signatures) {
+        return generate(Arrays.asList(signatures));
+    }
+
+    public Tablebase generate(List<String> signatures) {
+        for (String signature : signatures) {
+            ensure(TableLayout.of(signature).materialKey);
+        }
+        return current();
+    }
+
+    private Tablebase current() {
+        return new Tablebase(tables.toArray(new Tablebase.Table[0]));
+    }
+
+    private void ensure(int material) {
+        material = TableLayout.canonical(material);
+        Tablebase built = current();
+        if (TableLayout.isTriviallyDrawn(material) || built.find(material) != null
+                || built.find(TableLayout.flipMaterial(material)) != null) {
+            return;
+        }
+
+        TableLayout layout = TableLayout.of(TableLayout.signatureOf(material));
+        for (int dependency : dependencies(layout)) {
+            ensure(dependency);
+        }
+        tables.add(build(layout));
+    }
+
+    // материал после любого взятия или превращения
+    private static Set<Integer> dependencies(TableLayout layout) {
+        Set<Integer> result = new LinkedHashSet<>();
+        for (int i = 2; i < layout.pieceCount; i++) {
+            int shift = layout.colors[i] == Color.WHITE ? 0 : TableLayout.MATERIAL_SHIFT;
+            int piece = 1 << (TableLayout.slot(layout.types[i]) * 3 + shift);
+            result.add(layout.materialKey - piece);
+            if (layout.types[i] == PieceType.PAWN) {
+                for (PieceType promotion : PROMOTIONS) {
+                    result.add(layout.materialKey - piece
+                            + (1 << (TableLayout.slot(promotion) * 3 + shift)));
+                }
+            }
+        }
+        return result;
+    }
+
+    private Tablebase.Table build(TableLayout layout) {
+        Tablebase smaller = current();
+        Rounds rounds = new Rounds(layout, smaller);
+        int chunks = (rounds.data.length + CHUNK - 1) / CHUNK;
+
+        IntStream.range(0, chunks).parallel().forEach(chunk ->
+                new Worker(rounds).initialize(chunk * CHUNK, rounds.chunkEnd(chunk)));
+
+        int exitPlies = maxPlies;
+        for (int round = 1; ; round++) {
+            int currentRound = round;
+            AtomicBoolean changed = new AtomicBoolean();
+            IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                if (new Worker(rounds).step(chunk * CHUNK, rounds.chunkEnd(chunk), currentRound)) {
+                    changed.set(true);
+                }
+            });
+            rounds.nextRound();
+            if (!changed.get() && round > exitPlies + 1) {
+                break;
+            }
+        }
+
+        byte[] data = rounds.data;
+        for (int i = 0; i < data.length; i++) {
+            if (data[i] == PENDING) {
+                data[i] = Tablebase.DRAW;
+            } else {
+                maxPlies = Math.max(maxPlies, Math.abs(data[i]) - 1);
+            }
+        }
+        return new Tablebase.Table(layout, ByteBuffer.wrap(data));
+    }
+
+    // общее состояние построения одной таблицы
+    private static final class Rounds {
+        final TableLayout layout;
+        final Tablebase smaller;
+        final byte[] data;
+        // раунд, в котором выход в меньшую таблицу даёт выигрыш / делает все ходы проигранными
+        // (0 - никогда); дальше позиция разбирается только по меткам
+        final byte[] exitWinRound;
+        final byte[] exitLossRound;
+        // кандидаты текущего и следующего раунда
+        byte[] candidates;
+        byte[] nextCandidates;
+
+        Rounds(TableLayout layout, Tablebase smaller) {
+            this.layout = layout;
+            this.smaller = smaller;
+            int size = 2 * layout.sideSize;
+            data = new byte[size];
+            Arrays.fill(data, PENDING);
+            exitWinRound = new byte[size];
+            exitLossRound = new byte[size];
+            candidates = new byte[size];
+            nextCandidates = new byte[size];
+        }
+
+        int chunkEnd(int chunk) {
+            return Math.min(data.length, (chunk + 1) * CHUNK);
+        }
+
+        void nextRound() {
+            byte[] used = candidates;
+            candidates = nextCandidates;
+            nextCandidates = used;
+            Arrays.fill(nextCandidates, (byte) 0);
+        }
+    }
+
+    // разбор позиций одного куска индекса; состояние - только временные массивы
+    private static final class Worker {
+        private final Rounds rounds;
+        private final TableLayout layout;
+        private final byte[] data;
+        private final Tablebase smaller;
+        private final int count;
+        private final int[] squares;
+        private final int[] child;
+        private final int[] exitColors;
+        private final int[] exitTypes;
+        private final int[] exitSquares;
+
+        // результат обхода ходов
+        private int legalMoves;
+        private boolean winFound;
+        private boolean allLose;
+        private int longestWin;
+        // выходы в меньшие таблицы (при инициализации)
+        private int fastestExitLoss;
+        private int longestExitWin;
+        private boolean exitDraw;
+
+        private Worker(Rounds rounds) {
+            this.rounds = rounds;
+            this.layout = rounds.layout;
+            this.data = rounds.data;
+            this.smaller = rounds.smaller;
+            this.count = layout.pieceCount;
+            this.squares = new int[count];
+            this.child = new int[count];
+            this.exitColors = new int[count];
+            this.exitTypes = new int[count];
+            this.exitSquares = new int[count];
+        }
+
+        // недостижимые позиции - ничья; без ходов - мат или пат; для остальных
+        // запоминаются раунды, в которые их решит выход в меньшую таблицу
+        void initialize(int from, int to) {
+            for (int position = from; position < to; position++) {
+                int side = position < layout.sideSize ? 0 : 1;
+                layout.decode(position - side * layout.sideSize, squares);
+                if (!isLegal(side)) {
+                    data[position] = Tablebase.DRAW;
+                    continue;
+                }
+                visitMoves(side, INITIALIZE);
+                if (legalMoves == 0) {
+                    boolean mate = isAttacked(squares[side], 1 - side, occupancy(squares), -1, squares);
+                    data[position] = mate ? (byte) -1 : Tablebase.DRAW;
+                    if (mate) {
+                        markPredecessors(side, rounds.candidates);
+                    }
+                    continue;
+                }
+                if (fastestExitLoss != Integer.MAX_VALUE) {
+                    rounds.exitWinRound[position] = (byte) (fastestExitLoss + 1);
+                }
+                if (longestExitWin >= 0 && !exitDraw && fastestExitLoss == Integer.MAX_VALUE) {
+                    rounds.exitLossRound[position] = (byte) (longestExitWin + 1);
+                }
+            }
+        }
+
+        boolean step(int from, int to, int round) {
+            boolean changed = false;
+            byte[] candidates = rounds.candidates;
+            for (int position = from; position < to; position++) {
+                if (data[position] != PENDING || candidates[position] == 0
+                        && rounds.exitWinRound[position] != round && rounds.exitLossRound[position] != round) {
+                    continue;
+                }
+                int side = position < layout.sideSize ? 0 : 1;
+                layout.decode(position - side * layout.sideSize, squares);
+                visitMoves(side, round - 1);
+                if (winFound) {
+                    data[position] = code(round);
+                } else if (allLose) {
+                    data[position] = code(-(longestWin + 1));
+                } else {
+                    continue;
+                }
+                markPredecessors(side, rounds.nextCandidates);
+                changed = true;
+            }
+            return changed;
+        }
+
+        // позиции с ходом соперника, из которых тихий ход одной его фигуры ведёт сюда
+        private void markPredecessors(int side, byte[] marks) {
+            int mover = 1 - side;
+            long occupied = occupancy(squares);
+            for (int i = 0; i < count; i++) {
+                if (layout.colors[i].ordinal() != mover) {
+                    continue;
+                }
+                int square = squares[i];
+                if (layout.types[i] == PieceType.PAWN) {
+                    int back = mover == 0 ? -8 : 8;
+                    int origin = square + back;
+                    int rank = Bitboards.rankOf(origin);
+                    if (rank < 1 || rank > 6 || (occupied & Bitboards.bit(origin)) != 0) {
+                        continue;
+                    }
+                    mark(i, origin, mover, marks);
+                    if (rank == (mover == 0 ? 2 : 5) && (occupied & Bitboards.bit(origin + back)) == 0) {
+                        mark(i, origin + back, mover, marks);
+                    }
+                    continue;
+                }
+                long origins = attacks(layout.types[i], layout.colors[i], square, occupied) & ~occupied;
+                for (; origins != 0; origins &= origins - 1) {
+                    mark(i, Long.numberOfTrailingZeros(origins), mover, marks);
+                }
+            }
+        }
+
+        private void mark(int i, int origin, int mover, byte[] marks) {
+            System.arraycopy(squares, 0, child, 0, count);
+            child[i] = origin;
+            marks[mover * layout.sideSize + layout.index(child)] = 1;
+        }
+
+        // plies > 0 - выигрыш за plies полуходов, < 0 - проигрыш за -plies
+        private static byte code(int plies) {
+            if (Math.abs(plies) + 1 > MAX_VALUE) {
+                throw new IllegalStateException("Distance to mate does not fit into a byte: " + plies);
+            }
+            return (byte) (plies > 0 ? plies + 1 : plies - 1);
+        }
+
+        // обход легальных ходов стороны side; учитываются только значения с глубиной <= maxPlies
+        private void visitMoves(int side, int maxPlies) {
+            legalMoves = 0;
+            winFound = false;
+            allLose = true;
+            longestWin = 0;
+            fastestExitLoss = Integer.MAX_VALUE;
+            longestExitWin = -1;
+            exitDraw = false;
+
+            long occupied = occupancy(squares);
+            long own = 0L;
+            long enemy = 0L;
+            for (int i = 0; i < count; i++) {
+                if (layout.colors[i].ordinal() == side) {
+                    own |= Bitboards.bit(squares[i]);
+                } else {
+                    enemy |= Bitboards.bit(squares[i]);
+                }
+            }
+
+            Color color = side == 0 ? Color.WHITE : Color.BLACK;
+            for (int i = 0; i < count && !winFound; i++) {
+                if (layout.colors[i] != color) {
+                    continue;
+                }
+                int from = squares[i];
+                if (layout.types[i] == PieceType.PAWN) {
+                    visitPawnMoves(i, side, from, occupied, enemy, maxPlies);
+                    continue;
+                }
+                long targets = attacks(layout.types[i], color, from, occupied) & ~own;
+                for (; targets != 0 && !winFound; targets &= targets - 1) {
+                    int target = Long.numberOfTrailingZeros(targets);
+                    visit(i, side, target, pieceAt(target, enemy), null, maxPlies);
+                }
+            }
+        }
+
+        private void visitPawnMoves(int i, int side, int from, long occupied, long enemy, int maxPlies) {
+            int forward = side == 0 ? 8 : -8;
+            int lastRank = side == 0 ? 7 : 0;
+            int oneStep = from + forward;
+            if ((occupied & Bitboards.bit(oneStep)) == 0) {
+                visitPawnTarget(i, side, oneStep, -1, lastRank, maxPlies);
+                int twoSteps = oneStep + forward;
+                if (Bitboards.rankOf(from) == (side == 0 ? 1 : 6)
+                        && (occupied & Bitboards.bit(twoSteps)) == 0) {
+                    visit(i, side, twoSteps, -1, null, maxPlies);
+                }
+            }
+            long captures = Bitboards.pawnAttacks(side == 0 ? Color.WHITE : Color.BLACK, from) & enemy;
+            for (; captures != 0; captures &= captures - 1) {
+                int target = Long.numberOfTrailingZeros(captures);
+                visitPawnTarget(i, side, target, pieceAt(target, enemy), lastRank, maxPlies);
+            }
+        }
+
+        private void visitPawnTarget(int i, int side, int target, int captured, int lastRank, int maxPlies) {
+            if (Bitboards.rankOf(target) != lastRank) {
+                visit(i, side, target, captured, null, maxPlies);
+                return;
+            }
+            for (PieceType promotion : PROMOTIONS) {
+                visit(i, side, target, captured, promotion, maxPlies);
+            }
+        }
+
+        private void visit(int i, int side, int target, int captured, PieceType promotion, int maxPlies) {
+            if (captured >= 0 && layout.types[captured] == PieceType.KING) {
+                return;
+            }
+            System.arraycopy(squares, 0, child, 0, count);
+            child[i] = target;
+            long occupied = occupancy(child);
+            if (captured >= 0) {
+                occupied = 0L;
+                for (int k = 0; k < count; k++) {
+                    if (k != captured) {
+                        occupied |= Bitboards.bit(child[k]);
+                    }
+                }
+            }
+            if (isAttacked(child[side], 1 - side, occupied, captured, child)) {
+                return;
+            }
+            legalMoves++;
+            boolean exit = captured >= 0 || promotion != null;
+            if (maxPlies == INITIALIZE) {
+                if (exit) {
+                    recordExit(exitValue(i, side, captured, promotion));
+                }
+                return;
+            }
+
+            int value = exit
+                    ? exitValue(i, side, captured, promotion)
+                    : data[(1 - side) * layout.sideSize + layout.index(child)];
+            if (value == PENDING) {
+                allLose = false;
+            } else if (value < 0 && -value - 1 <= maxPlies) {
+                winFound = true;
+            } else if (value > 0 && value - 1 <= maxPlies) {
+                longestWin = Math.max(longestWin, value - 1);
+            } else {
+                allLose = false;
+            }
+        }
+
+        private void recordExit(int value) {
+            if (value < 0) {
+                fastestExitLoss = Math.min(fastestExitLoss, -value - 1);
+            } else if (value > 0) {
+                longestExitWin = Math.max(longestExitWin, value - 1);
+            } else {
+                exitDraw = true;
+            }
+        }
+
+        // значение позиции после взятия или превращения - из уже построенных таблиц
+        private int exitValue(int i, int side, int captured, PieceType promotion) {
+            int exitCount = 0;
+            for (int k = 0; k < count; k++) {
+                if (k == captured) {
+                    continue;
+                }
+                exitColors[exitCount] = layout.colors[k].ordinal();
+                exitTypes[exitCount] = (k == i && promotion != null ? promotion : layout.types[k]).ordinal();
+                exitSquares[exitCount] = child[k];
+                exitCount++;
+            }
+            int value = smaller.probe(exitCount, exitColors, exitTypes, exitSquares, side != 0);
+            if (value == Tablebase.UNKNOWN) {
+                throw new IllegalStateException("Missing dependency table for " + layout.signature);
+            }
+            return value;
+        }
+
+        private boolean isLegal(int side) {
+            long occupied = occupancy(squares);
+            if (Long.bitCount(occupied) != count) {
+                return false;
+            }
+            for (int i = 2; i < count; i++) {
+                if (layout.types[i] == PieceType.PAWN
+                        && (Bitboards.rankOf(squares[i]) == 0 || Bitboards.rankOf(squares[i]) == 7)) {
+                    return false;
+                }
+            }
+            // король стороны, которая не ходит, не может стоять под шахом
+            return !isAttacked(squares[1 - side], side, occupied, -1, squares);
+        }
+
+        private boolean isAttacked(int square, int byColor, long occupied, int excluded, int[] position) {
+            for (int k = 0; k < count; k++) {
+                if (k == excluded || layout.colors[k].ordinal() != byColor) {
+                    continue;
+                }
+                if ((attacks(layout.types[k], layout.colors[k], position[k], occupied)
+                        & Bitboards.bit(square)) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int pieceAt(int square, long enemy) {
+            if ((enemy & Bitboards.bit(square)) == 0) {
+                return -1;
+            }
+            for (int k = 0; k < count; k++) {
+                if (squares[k] == square) {
+                    return k;
+                }
+            }
+            return -1;
+        }
+
+        private long occupancy(int[] position) {
+            long occupied = 0L;
+            for (int k = 0; k < count; k++) {
+                occupied |= Bitboards.bit(position[k]);
+            }
+            return occupied;
+        }
+
+        private static long attacks(PieceType type, Color color, int square, long occupied) {
+            return switch (type) {
+                case PAWN -> Bitboards.pawnAttacks(color, square);
+                case HORSE -> Bitboards.knightAttacks(square);
+                case BISHOP -> Bitboards.bishopAttacks(square, occupied);
+                case ROOK -> Bitboards.rookAttacks(square, occupied);
+                case QUEEN -> Bitboards.queenAttacks(square, occupied);
+                case KING -> Bitboards.kingAttacks(square);
+            };
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.chess.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Последние capacity событий с номерами seq, идущими подряд. Старые события вытесняются новыми,
+// так что память на партию ограничена. Не потокобезопасен: пишется и читается в ящике партии.
+// Ёмкость 0 отключает хранение: кольцо помнит только последний номер, и since отдаёт null
+// при любом пропуске
+public class EventRing<T> {
+    private final Object[] events;
+    // номер последнего события; у пустого кольца - номер, с которого оно начато
+    private long lastSeq;
+    private int size;
+
+    public EventRing(int capacity, long lastSeq) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative: " + capacity);
+        }
+        this.events = new Object[capacity];
+        this.lastSeq = lastSeq;
+    }
+
+    // номер не по порядку значит, что события между ними не видны кольцу, - оно начинается заново
+    public void add(long seq, T event) {
+        if (seq != lastSeq + 1) {
+            size = 0;
+        }
+        if (events.length > 0) {
+            events[(int) (seq % events.length)] = event;
+        }
+        lastSeq = seq;
+        size = Math.min(size + 1, events.length);
+    }
+
+    // события с номерами больше seq по порядку; null, если часть их уже вытеснена
+    // или seq больше последнего известного номера
+    @SuppressWarnings("unchecked")
+    public List<T> since(long seq) {
+        if (seq > lastSeq || lastSeq - seq > size) {
+            return null;
+        }
+        List<T> missed = new ArrayList<>((int) (lastSeq - seq));
+        for (long next = seq + 1; next <= lastSeq; next++) {
+            missed.add((T) events[(int) (next % events.length)]);
+        }
+        return missed;
+    }
+
+    public long getLastSeq() {
+        return lastSeq;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.chess.utils;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Почтовый ящик актора: задачи выполняются строго по одной и в порядке поступления,
+// но не держат отдельный поток - очередь разбирается на общем пуле, когда в ней что-то есть.
+// Поэтому состояние, к которому обращаются только задачи ящика, не нуждается в блокировках,
+// а разные ящики работают параллельно. За один заход разбирается не больше BATCH задач,
+// чтобы занятый ящик не держал поток пула, пока ждут другие.
+public class Mailbox implements Executor {
+    private static final int BATCH = 64;
+
+    private final Logger logger = LoggerFactory.getLogger(Mailbox.class);
+
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final Executor executor;
+
+    public Mailbox(Executor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        queue.add(task);
+        schedule();
+    }
+
+    // результат задачи; исключение задачи завершает future, а не ящик. Error тоже
+    // завершает future, иначе ждущий её так и не дождался бы ответа
+    public <T> CompletableFuture<T> call(Supplier<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        execute(() -> {
+            try {
+                result.complete(task.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+                if (e instanceof Error error) {
+                    throw error;
+                }
+            }
+        });
+        return result;
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    // если пул отказал, флаг сбрасывается: следующая задача снова попробует запустить разбор
+    private void schedule() {
+        if (!queue.isEmpty() && scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RuntimeException e) {
+                scheduled.set(false);
+                throw e;
+            }
+        }
+    }
+
+    // Error задачи уходит в поток пула, но флаг сбрасывается в finally, и ящик продолжает работу
+    private void drain() {
+        try {
+            Runnable task;
+            for (int processed = 0; processed < BATCH && (task = queue.poll()) != null; processed++) {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    logger.error("Задача почтового ящика завершилась с ошибкой", e);
+                }
+            }
+        } finally {
+            scheduled.set(false);
+            // задачи, пришедшие после последнего poll, но до сброса флага, иначе остались бы без исполнителя
+            schedule();
+        }
+    }
+}
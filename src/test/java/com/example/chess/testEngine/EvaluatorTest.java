@@ -0,0 +1,57 @@
+package com.example.chess.testEngine;
+
+import com.example.chess.engine.Board;
+import com.example.chess.engine.Fen;
+import com.example.chess.engine.MoveGenerator;
+import com.example.chess.engine.MoveList;
+import com.example.chess.search.Evaluator;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EvaluatorTest {
+
+    @Test
+    void incrementalScore_AlongRandomGame_ShouldMatchFreshBoard() {
+        Board board = new Board();
+        Random random = new Random(7);
+        int[] played = new int[200];
+        int plies = 0;
+
+        for (; plies < played.length; plies++) {
+            MoveList moves = MoveGenerator.generateLegalMoves(board);
+            if (moves.isEmpty()) {
+                break;
+            }
+            played[plies] = moves.get(random.nextInt(moves.size()));
+            board.makeMove(played[plies]);
+
+            Board fresh = Fen.parse(Fen.toFen(board));
+            assertEquals(fresh.getMiddlegameScore(), board.getMiddlegameScore(), "ply " + plies);
+            assertEquals(fresh.getEndgameScore(), board.getEndgameScore(), "ply " + plies);
+            assertEquals(fresh.getPhase(), board.getPhase(), "ply " + plies);
+        }
+
+        for (int ply = plies - 1; ply >= 0; ply--) {
+            board.unmakeMove(played[ply]);
+        }
+        Board start = new Board();
+        assertEquals(start.getMiddlegameScore(), board.getMiddlegameScore());
+        assertEquals(start.getEndgameScore(), board.getEndgameScore());
+        assertEquals(24, board.getPhase());
+    }
+
+    @Test
+    void evaluate_ShouldBeSymmetricForColors() {
+        assertEquals(0, Evaluator.evaluate(new Board()));
+
+        Board white = Fen.parse("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w - - 0 1");
+        Board black = Fen.parse("r3k2r/pppbbppp/2n2q1P/1P2p3/3pn3/BN2PNP1/P1PPQPB1/R3K2R b - - 0 1");
+        assertEquals(Evaluator.evaluate(white), Evaluator.evaluate(black));
+
+        Board extraQueen = Fen.parse("4k3/8/8/8/8/8/8/3QK3 w - - 0 1");
+        assertTrue(Evaluator.evaluate(extraQueen) > 800);
+    }
+}
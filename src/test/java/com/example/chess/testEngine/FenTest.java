@@ -0,0 +1,83 @@
+package com.example.chess.testEngine;
+
+import com.example.chess.engine.Board;
+import com.example.chess.engine.Fen;
+import com.example.chess.engine.MoveGenerator;
+import com.example.chess.engine.MoveList;
+import com.example.chess.engine.PositionCodec;
+import com.example.chess.engine.Zobrist;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FenTest {
+
+    private static final List<String> POSITIONS = List.of(
+            Fen.START_POSITION,
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 b - - 12 40"
+    );
+
+    @Test
+    void toFen_OfNewBoard_ShouldBeStartPosition() {
+        assertEquals(Fen.START_POSITION, Fen.toFen(new Board()));
+    }
+
+    @Test
+    void parse_ThenToFen_ShouldRoundTrip() {
+        for (String fen : POSITIONS) {
+            Board board = Fen.parse(fen);
+
+            assertEquals(fen, Fen.toFen(board));
+            assertEquals(Zobrist.compute(board), board.getZobristKey(), fen);
+        }
+    }
+
+    @Test
+    void makeMove_ShouldUpdateMoveCounters() {
+        Board board = Fen.parse(Fen.START_POSITION);
+        MoveList moves = MoveGenerator.generateLegalMoves(board);
+
+        board.makeMove(moves.get(0));
+        board.makeMove(MoveGenerator.generateLegalMoves(board).get(0));
+
+        assertEquals(2, board.getFullmoveNumber());
+    }
+
+    @Test
+    void positionCodec_ShouldRoundTrip() {
+        for (String fen : POSITIONS) {
+            byte[] encoded = PositionCodec.encode(Fen.parse(fen));
+
+            assertEquals(PositionCodec.SIZE, encoded.length);
+            assertEquals(fen, Fen.toFen(PositionCodec.decode(encoded)));
+        }
+    }
+
+    @Test
+    void parse_WithInvalidFen_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("8/8/8 w"));
+        // права на рокировку без ладей на исходных клетках
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("4k3/8/8/8/8/8/8/4K3 w KQ - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("r3k2r/8/8/8/8/8/8/R2K3R w K - 0 1"));
+        // семь горизонталей, горизонталь из девяти и из семи клеток
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("4k3/8/8/8/8/8/4K3 w - - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("4k3/8/8/8/8/8/8/4K4 w - - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("4k3/8/8/8/8/8/8/4K2 w - - 0 1"));
+        // нет чёрного короля, два белых
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("8/8/8/8/8/8/8/4K3 w - - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("4k3/8/8/8/8/8/8/3KK3 w - - 0 1"));
+        // пешки на первой и последней горизонталях
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("4k3/8/8/8/8/8/8/P3K3 w - - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("p3k3/8/8/8/8/8/8/4K3 w - - 0 1"));
+        // клетка взятия на проходе: неполная, вне доски, не на той горизонтали
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("4k3/8/8/8/8/8/8/4K3 w - e 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("4k3/8/8/8/8/8/8/4K3 w - i6 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("4k3/8/8/8/8/8/8/4K3 w - e4 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("4k3/8/8/8/8/8/8/4K3 w - e3 0 1"));
+    }
+}
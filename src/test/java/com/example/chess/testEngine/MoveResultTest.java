@@ -0,0 +1,63 @@
+package com.example.chess.testEngine;
+
+import com.example.chess.engine.Board;
+import com.example.chess.engine.Fen;
+import com.example.chess.engine.Move;
+import com.example.chess.engine.MoveResult;
+import com.example.chess.engine.pieces.PieceType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MoveResultTest {
+
+    @Test
+    void tryMove_ShouldApplyLegalMove() {
+        Board board = new Board();
+
+        assertEquals(MoveResult.OK, board.tryMove(4, 1, 4, 3));
+        assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", Fen.toFen(board));
+    }
+
+    @Test
+    void tryMove_ShouldPromoteToChosenPieceOrQueen() {
+        Board underpromotion = Fen.parse("8/4P3/8/8/8/8/k7/4K3 w - - 0 1");
+        assertEquals(MoveResult.OK, underpromotion.tryMove(4, 6, 4, 7, PieceType.HORSE));
+        assertEquals("4N3/8/8/8/8/8/k7/4K3 b - - 0 1", Fen.toFen(underpromotion));
+        assertEquals("e7e8n", Move.toString(underpromotion.getLastMove()));
+
+        Board queen = Fen.parse("8/4P3/8/8/8/8/k7/4K3 w - - 0 1");
+        assertEquals(MoveResult.OK, queen.tryMove(4, 6, 4, 7));
+        assertEquals("4Q3/8/8/8/8/8/k7/4K3 b - - 0 1", Fen.toFen(queen));
+    }
+
+    @Test
+    void tryMove_ShouldReportReasonWithoutChangingBoard() {
+        Board board = new Board();
+        String fen = Fen.toFen(board);
+
+        assertEquals(MoveResult.NOT_YOUR_TURN, board.tryMove(4, 6, 4, 4));
+        assertEquals(MoveResult.NO_PIECE, board.tryMove(4, 3, 4, 4));
+        assertEquals(MoveResult.OUT_OF_BOARD, board.tryMove(0, 0, 0, 8));
+        assertEquals(MoveResult.OWN_PIECE, board.tryMove(0, 0, 0, 1));
+        assertEquals(MoveResult.BLOCKED, board.tryMove(0, 0, 0, 5));
+        assertEquals(MoveResult.UNREACHABLE, board.tryMove(1, 0, 1, 2));
+        assertEquals(MoveResult.UNREACHABLE, board.tryMove(4, 1, 5, 2));
+        assertEquals(fen, Fen.toFen(board));
+    }
+
+    @Test
+    void tryMove_ShouldDistinguishPinsChecksAndCastling() {
+        // слон e2 связан ладьёй e8, король на e1; рокировку перегораживает слон f1
+        Board pinned = Fen.parse("4r1k1/8/8/8/8/8/4B3/4K2R w K - 0 1");
+        assertEquals(MoveResult.PINNED, pinned.tryMove(4, 1, 3, 2));
+        assertEquals(MoveResult.BLOCKED, Fen.parse("4k3/8/8/8/8/8/8/4KB1R w K - 0 1").tryMove(4, 0, 6, 0));
+
+        // шах ладьёй: ход посторонней фигурой его не снимает, король не уходит по линии шаха,
+        // рокировка под шахом запрещена
+        Board check = Fen.parse("4r1k1/8/8/8/8/8/P7/4K2R w K - 0 1");
+        assertEquals(MoveResult.LEAVES_KING_IN_CHECK, check.tryMove(0, 1, 0, 2));
+        assertEquals(MoveResult.LEAVES_KING_IN_CHECK, check.tryMove(4, 0, 4, 1));
+        assertEquals(MoveResult.CASTLING_NOT_ALLOWED, check.tryMove(4, 0, 6, 0));
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.chess.testEngine;
+
+import com.example.chess.engine.Board;
+import com.example.chess.engine.Fen;
+import com.example.chess.engine.Move;
+import com.example.chess.engine.MoveGenerator;
+import com.example.chess.engine.MoveList;
+import com.example.chess.exception.ValidationException;
+import com.example.chess.search.BookMove;
+import com.example.chess.search.OpeningBook;
+import com.example.chess.search.OpeningBookWriter;
+import com.example.chess.service.implementation.OpeningBookServiceImpl;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OpeningBookTest {
+
+    private static final String CASTLING_POSITION =
+            "r3k2r/pppq1ppp/2npbn2/4p3/4P3/2NPBN2/PPPQ1PPP/R3K2R w KQkq - 0 1";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void lookup_ShouldReturnLegalMovesWithWeights() throws Exception {
+        Path path = directory.resolve("book.bin");
+        Board start = new Board();
+        Board castling = Fen.parse(CASTLING_POSITION);
+        new OpeningBookWriter()
+                .add(start, move(start, "e2e4"), 3)
+                .add(start, move(start, "d2d4"), 1)
+                .add(castling, move(castling, "e1g1"), 5)
+                .write(path);
+
+        OpeningBook book = OpeningBook.open(path);
+        List<BookMove> moves = book.lookup(start);
+
+        assertEquals(3, book.size());
+        assertEquals(48L, Files.size(path));
+        assertEquals(2, moves.size());
+        assertEquals("e1g1", Move.toString(book.pickMove(castling, new SplittableRandom(1))));
+        assertEquals(Move.NONE, book.pickMove(Fen.parse("4k3/8/8/8/8/8/8/4K3 w - - 0 1"),
+                new SplittableRandom(1)));
+    }
+
+    @Test
+    void open_ShouldReadPolyglotBook() throws Exception {
+        // запись как в книге другого движка: ключ начальной позиции из спецификации и ход e2e4
+        Path polyglot = directory.resolve("polyglot.bin");
+        Files.write(polyglot, ByteBuffer.allocate(OpeningBook.ENTRY_SIZE)
+                .putLong(0x463B96181691FC9CL).putShort((short) 0x031C).putShort((short) 1).putInt(0)
+                .array());
+
+        OpeningBook book = OpeningBook.open(polyglot);
+
+        assertEquals("e2e4", Move.toString(book.pickMove(new Board(), new SplittableRandom(1))));
+        Files.write(polyglot, new byte[OpeningBook.ENTRY_SIZE + 1]);
+        assertThrows(IOException.class, () -> OpeningBook.open(polyglot));
+    }
+
+    @Test
+    void reload_ShouldSwapBookAtRuntime() throws Exception {
+        Path configured = directory.resolve("book.bin");
+        Path replacement = directory.resolve("replacement.bin");
+        Board start = new Board();
+        new OpeningBookWriter().add(start, move(start, "e2e4"), 1).write(configured);
+        new OpeningBookWriter().add(start, move(start, "c2c4"), 1).write(replacement);
+
+        OpeningBookServiceImpl service = new OpeningBookServiceImpl(configured.toString());
+        assertTrue(service.isLoaded());
+        assertEquals("e2e4", Move.toString(service.findMove(start)));
+
+        // новая книга подменяет файл по настроенному пути, старое отображение остаётся у старого файла
+        Files.move(replacement, configured, StandardCopyOption.REPLACE_EXISTING);
+        assertEquals(1, service.reload());
+        assertEquals("c2c4", Move.toString(service.findMove(start)));
+
+        Files.delete(configured);
+        ValidationException error = assertThrows(ValidationException.class, service::reload);
+        assertFalse(error.getMessage().contains(directory.toString()));
+        assertEquals("c2c4", Move.toString(service.findMove(start)));
+        assertFalse(new OpeningBookServiceImpl("").isLoaded());
+    }
+
+    private static int move(Board board, String uci) {
+        MoveList moves = MoveGenerator.generateLegalMoves(board);
+        for (int i = 0; i < moves.size(); i++) {
+            if (Move.toString(moves.get(i)).equals(uci)) {
+                return moves.get(i);
+            }
+        }
+        throw new IllegalArgumentException(uci);
+    }
+}
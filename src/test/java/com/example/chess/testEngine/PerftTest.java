@@ -0,0 +1,57 @@
+package com.example.chess.testEngine;
+
+import com.example.chess.engine.Board;
+import com.example.chess.engine.Fen;
+import com.example.chess.engine.Perft;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PerftTest {
+
+    // эталонные значения для начальной позиции
+    private static final long[] START_POSITION_NODES = {1, 20, 400, 8_902, 197_281};
+
+    // позиции с рокировками, превращениями и взятием на проходе (chessprogramming.org/Perft_Results)
+    private static final String KIWIPETE =
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    private static final String ENDGAME = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+    private static final String PROMOTIONS =
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1";
+
+    @Test
+    void perft_FromStartPosition_ShouldMatchReferenceCounts() {
+        for (int depth = 0; depth < START_POSITION_NODES.length; depth++) {
+            assertEquals(START_POSITION_NODES[depth], Perft.perft(new Board(), depth),
+                    "perft(" + depth + ")");
+        }
+    }
+
+    @Test
+    void perft_FromTrickyPositions_ShouldMatchReferenceCounts() {
+        assertEquals(97_862, Perft.perft(Fen.parse(KIWIPETE), 3));
+        assertEquals(43_238, Perft.perft(Fen.parse(ENDGAME), 4));
+        assertEquals(9_467, Perft.perft(Fen.parse(PROMOTIONS), 3));
+    }
+
+    @Test
+    void perft_ShouldRestoreBoardAfterMakeUnmake() {
+        Board board = new Board();
+        long occupied = board.getOccupied();
+
+        Perft.perft(board, 3);
+
+        assertEquals(occupied, board.getOccupied());
+        assertEquals(Board.WHITE_KINGSIDE | Board.WHITE_QUEENSIDE
+                | Board.BLACK_KINGSIDE | Board.BLACK_QUEENSIDE, board.getCastlingRights());
+        assertEquals(-1, board.getEnPassantSquare());
+        assertEquals(true, board.isWhiteToMove());
+    }
+
+    @Test
+    void parallelPerft_ShouldMatchSequentialPerft() {
+        Board board = new Board();
+
+        assertEquals(Perft.perft(board, 4), Perft.parallelPerft(board, 4));
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.chess.testEngine;
+
+import com.example.chess.engine.Board;
+import com.example.chess.engine.Fen;
+import com.example.chess.engine.Move;
+import com.example.chess.search.ParallelSearch;
+import com.example.chess.search.Search;
+import com.example.chess.search.SearchLimits;
+import com.example.chess.search.SearchResult;
+import com.example.chess.search.TranspositionTable;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchTest {
+
+    @Test
+    void search_ShouldFindMateInOne() {
+        Board board = Fen.parse("6k1/5ppp/8/8/8/8/5PPP/R5K1 w - - 0 1");
+
+        SearchResult result = new Search().search(board, SearchLimits.depth(3));
+
+        assertEquals("a1a8", Move.toString(result.getBestMove()));
+        assertEquals(Search.MATE - 1, result.getScore());
+    }
+
+    @Test
+    void search_ShouldWinHangingQueen() {
+        Board board = Fen.parse("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1");
+
+        SearchResult result = new Search().search(board, SearchLimits.depth(4));
+
+        assertEquals("d2d5", Move.toString(result.getBestMove()));
+    }
+
+    @Test
+    void search_ShouldRespectNodeBudgetAndRestoreBoard() {
+        Board board = new Board();
+        String fen = Fen.toFen(board);
+
+        SearchResult result = new Search().search(board, new SearchLimits(64, 20_000, Long.MAX_VALUE));
+
+        assertTrue(result.getNodes() < 20_000 + 2048);
+        assertTrue(result.getBestMove() != Move.NONE);
+        assertEquals(fen, Fen.toFen(board));
+    }
+
+    @Test
+    void transpositionTable_ShouldRoundTripEntriesAndRejectOtherKeys() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 0x1234_5678_9ABC_DEF0L;
+        int move = Move.encode(12, 28, Move.DOUBLE_PUSH);
+
+        table.store(key, move, -345, 7, TranspositionTable.LOWER, 3);
+        long entry = table.probe(key);
+
+        assertEquals(move, TranspositionTable.move(entry));
+        assertEquals(-345, TranspositionTable.score(entry, 3));
+        assertEquals(7, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(entry));
+        assertEquals(0L, table.probe(key + table.capacity()));
+    }
+
+    @Test
+    void transpositionTable_ShouldStoreMateScoresRelativeToNode() {
+        TranspositionTable table = new TranspositionTable(1);
+
+        table.store(42L, Move.NONE, Search.MATE - 5, 3, TranspositionTable.EXACT, 2);
+
+        assertEquals(Search.MATE - 7, TranspositionTable.score(table.probe(42L), 4));
+    }
+
+    @Test
+    void parallelSearch_ShouldAgreeWithSingleThreadedSearch() {
+        try (ParallelSearch search = new ParallelSearch(3, 4)) {
+            Board board = Fen.parse("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1");
+
+            SearchResult result = search.search(board, SearchLimits.depth(4));
+
+            assertEquals("d2d5", Move.toString(result.getBestMove()));
+            assertEquals("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1", Fen.toFen(board));
+        }
+    }
+
+    @Test
+    void parallelSearch_ShouldRunConcurrentCallsSideBySide() {
+        try (ParallelSearch search = new ParallelSearch(2, 4)) {
+            // бесконечная глубина: каждый поиск занимает ровно свой бюджет времени
+            SearchLimits limits = new SearchLimits(Search.MAX_PLY, Long.MAX_VALUE, 400);
+            long start = System.nanoTime();
+            CompletableFuture<SearchResult> first = CompletableFuture.supplyAsync(() -> search.search(
+                    Fen.parse("r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3"), limits));
+            SearchResult second = search.search(Fen.parse("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1"), limits);
+            assertTrue(first.join().getBestMove() != Move.NONE);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            assertEquals("d2d5", Move.toString(second.getBestMove()));
+            // по очереди было бы не меньше 800 мс
+            assertTrue(elapsedMillis < 750, "Поиски шли по очереди: " + elapsedMillis + " мс");
+        }
+    }
+
+    @Test
+    void parallelSearch_WhenMainThreadFails_ShouldStopHelpersBeforeReturning() {
+        try (ParallelSearch search = new ParallelSearch(2, 4)) {
+            // помощник ищет на своей копии доски, а главный поток падает, как только тот начал
+            Board failing = new Board(Fen.parse("r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3")) {
+                @Override
+                public void makeMove(int move) {
+                    long deadline = System.nanoTime() + 5_000_000_000L;
+                    while (!isHelperSearching() && System.nanoTime() < deadline) {
+                        Thread.onSpinWait();
+                    }
+                    throw new IllegalStateException("main worker failed");
+                }
+            };
+
+            assertThrows(IllegalStateException.class,
+                    () -> search.search(failing, new SearchLimits(Search.MAX_PLY, Long.MAX_VALUE, 10_000)));
+            assertFalse(isHelperSearching(), "Помощник продолжает искать после выхода из search");
+        }
+    }
+
+    private static boolean isHelperSearching() {
+        return Thread.getAllStackTraces().entrySet().stream()
+                .anyMatch(thread -> thread.getKey().getName().startsWith("SearchWorker")
+                        && Arrays.stream(thread.getValue())
+                                .anyMatch(frame -> frame.getMethodName().equals("iterate")));
+    }
+}
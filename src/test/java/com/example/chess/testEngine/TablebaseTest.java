@@ -0,0 +1,84 @@
+package com.example.chess.testEngine;
+
+import com.example.chess.engine.Board;
+import com.example.chess.engine.Fen;
+import com.example.chess.engine.GameAnalyzer;
+import com.example.chess.engine.Move;
+import com.example.chess.search.Search;
+import com.example.chess.search.SearchLimits;
+import com.example.chess.search.SearchResult;
+import com.example.chess.search.TranspositionTable;
+import com.example.chess.tablebase.Tablebase;
+import com.example.chess.tablebase.TablebaseGenerator;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TablebaseTest {
+
+    private static final String QUEEN_MATE_IN_ONE = "k7/8/1K6/8/8/8/8/6Q1 w - - 0 1";
+    private static final String ROOK_MATE_IN_THREE = "8/8/8/8/8/8/8/k1K4R w - - 0 1";
+    private static final String PAWN_WIN = "4k3/8/4K3/4P3/8/8/8/8 w - - 0 1";
+    private static final String PAWN_DRAW = "8/8/8/8/8/4k3/4P3/4K3 w - - 0 1";
+    private static final String STALEMATE = "4k3/4P3/4K3/8/8/8/8/8 b - - 0 1";
+
+    private static Tablebase tablebase;
+
+    @TempDir
+    Path directory;
+
+    @BeforeAll
+    static void generate() {
+        tablebase = new TablebaseGenerator().generate("KQK", "KRK", "KPK");
+    }
+
+    @Test
+    void probe_ShouldReturnDistanceToMate() {
+        assertEquals(2, tablebase.probe(Fen.parse(QUEEN_MATE_IN_ONE)));
+        assertEquals(6, tablebase.probe(Fen.parse(ROOK_MATE_IN_THREE)));
+        assertTrue(tablebase.probe(Fen.parse(PAWN_WIN)) > 0);
+        assertEquals(Tablebase.DRAW, tablebase.probe(Fen.parse(PAWN_DRAW)));
+        assertEquals(Tablebase.DRAW, tablebase.probe(Fen.parse(STALEMATE)));
+        // цвета отражены: таблица KQK отвечает и за позицию с чёрным ферзём
+        assertEquals(2, tablebase.probe(Fen.parse("6q1/8/8/8/8/1k6/8/K7 b - - 0 1")));
+        assertEquals(Tablebase.UNKNOWN, tablebase.probe(new Board()));
+    }
+
+    @Test
+    void bestMove_ShouldMateFastest() {
+        assertEquals("g1g8", Move.toString(tablebase.bestMove(Fen.parse(QUEEN_MATE_IN_ONE))));
+
+        Board board = Fen.parse(PAWN_WIN);
+        int value = tablebase.probe(board);
+        int move = tablebase.bestMove(board);
+        board.makeMove(move);
+        assertEquals(-(value - 1), tablebase.probe(board));
+    }
+
+    @Test
+    void search_ShouldUseTablebase() {
+        Search search = new Search(new TranspositionTable(1), tablebase);
+        SearchResult result = search.search(Fen.parse(ROOK_MATE_IN_THREE), SearchLimits.depth(1));
+
+        assertEquals(Search.MATE - 5, result.getScore());
+        assertTrue(GameAnalyzer.isTablebaseDraw(Fen.parse(PAWN_DRAW), tablebase));
+        assertFalse(GameAnalyzer.isTablebaseDraw(Fen.parse(PAWN_WIN), tablebase));
+    }
+
+    @Test
+    void write_ShouldRoundTripThroughMappedFile() throws Exception {
+        Path path = directory.resolve("tablebase.bin");
+        tablebase.write(path);
+        Tablebase mapped = Tablebase.open(path);
+
+        assertEquals(List.of("KQK", "KRK", "KPK"), mapped.getSignatures());
+        assertEquals(tablebase.probe(Fen.parse(PAWN_WIN)), mapped.probe(Fen.parse(PAWN_WIN)));
+        assertEquals(6, mapped.probe(Fen.parse(ROOK_MATE_IN_THREE)));
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.chess.testEngine;
+
+import com.example.chess.engine.Board;
+import com.example.chess.engine.Fen;
+import com.example.chess.engine.GameAnalyzer;
+import com.example.chess.engine.Move;
+import com.example.chess.engine.MoveGenerator;
+import com.example.chess.engine.MoveList;
+import com.example.chess.engine.Zobrist;
+import com.example.chess.search.PolyglotZobrist;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ZobristTest {
+
+    @Test
+    void incrementalKey_AlongRandomGame_ShouldMatchFullRecomputation() {
+        Board board = new Board();
+        Random random = new Random(42);
+
+        for (int ply = 0; ply < 200; ply++) {
+            MoveList moves = MoveGenerator.generateLegalMoves(board);
+            if (moves.isEmpty()) {
+                break;
+            }
+            board.makeMove(moves.get(random.nextInt(moves.size())));
+            assertEquals(Zobrist.compute(board), board.getZobristKey(), "ply " + ply);
+        }
+    }
+
+    @Test
+    void unmakeMove_ShouldRestoreKey() {
+        Board board = new Board();
+        long key = board.getZobristKey();
+
+        MoveList moves = MoveGenerator.generateLegalMoves(board);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            board.makeMove(move);
+            assertNotEquals(key, board.getZobristKey());
+            board.unmakeMove(move);
+            assertEquals(key, board.getZobristKey());
+        }
+    }
+
+    @Test
+    void transposition_ShouldGiveSameKey() {
+        Board first = new Board();
+        play(first, "g1f3", "g8f6", "b1c3");
+        Board second = new Board();
+        play(second, "b1c3", "g8f6", "g1f3");
+
+        assertEquals(first.getZobristKey(), second.getZobristKey());
+    }
+
+    @Test
+    void repetitionCount_ShouldDetectThreefoldRepetition() {
+        Board board = new Board();
+        play(board, "g1f3", "g8f6", "f3g1", "f6g8");
+        assertEquals(1, board.repetitionCount());
+        assertFalse(GameAnalyzer.isThreefoldRepetition(board));
+
+        play(board, "g1f3", "g8f6", "f3g1", "f6g8");
+        assertTrue(GameAnalyzer.isThreefoldRepetition(board));
+        assertTrue(GameAnalyzer.isThreefoldRepetition(new Board(board)));
+
+        assertFalse(GameAnalyzer.isFivefoldRepetition(board));
+
+        play(board, "g1f3", "g8f6", "f3g1", "f6g8", "g1f3", "g8f6", "f3g1", "f6g8");
+        assertTrue(GameAnalyzer.isFivefoldRepetition(board));
+
+        // ход пешкой необратим: старые позиции больше не могут повториться
+        play(board, "e2e4");
+        assertEquals(0, board.repetitionCount());
+    }
+
+    @Test
+    void moveRules_ShouldFollowHalfmoveClock() {
+        Board board = Fen.parse("4k3/8/8/8/8/8/8/R3K3 w - - 99 80");
+        assertFalse(GameAnalyzer.isFiftyMoveRule(board));
+
+        play(board, "a1a2");
+        assertTrue(GameAnalyzer.isFiftyMoveRule(board));
+        assertFalse(GameAnalyzer.isSeventyFiveMoveRule(board));
+        assertTrue(GameAnalyzer.isSeventyFiveMoveRule(Fen.parse("4k3/8/8/8/8/8/8/R3K3 w - - 150 100")));
+    }
+
+    @Test
+    void polyglotKey_ShouldMatchReferenceKeysFromFormatSpecification() {
+        Board board = new Board();
+        assertEquals(0x463B96181691FC9CL, PolyglotZobrist.compute(board));
+
+        // взятие на проходе невозможно: вертикаль e в ключ не входит
+        play(board, "e2e4");
+        assertEquals(0x823C9B50FD114196L, PolyglotZobrist.compute(board));
+        play(board, "d7d5");
+        assertEquals(0x0756B94461C50FB0L, PolyglotZobrist.compute(board));
+        play(board, "e4e5");
+        assertEquals(0x662FAFB965DB29D4L, PolyglotZobrist.compute(board));
+        // белая пешка e5 может взять на f6
+        play(board, "f7f5");
+        assertEquals(0x22A48B5A8E47FF78L, PolyglotZobrist.compute(board));
+        play(board, "e1e2");
+        assertEquals(0x652A607CA3F242C1L, PolyglotZobrist.compute(board));
+        play(board, "e8f7");
+        assertEquals(0x00FDD303C946BDD9L, PolyglotZobrist.compute(board));
+
+        Board other = new Board();
+        play(other, "a2a4", "b7b5", "h2h4", "b5b4", "c2c4");
+        assertEquals(0x3C8123EA7B067637L, PolyglotZobrist.compute(other));
+        play(other, "b4c3", "a1a3");
+        assertEquals(0x5C3F9B829B279560L, PolyglotZobrist.compute(other));
+    }
+
+    private static void play(Board board, String... moves) {
+        for (String notation : moves) {
+            MoveList legal = MoveGenerator.generateLegalMoves(board);
+            for (int i = 0; i < legal.size(); i++) {
+                if (Move.toString(legal.get(i)).equals(notation)) {
+                    board.makeMove(legal.get(i));
+                    break;
+                }
+            }
+        }
+    }
+}
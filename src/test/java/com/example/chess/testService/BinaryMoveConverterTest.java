@@ -0,0 +1,115 @@
+package com.example.chess.testService;
+
+import com.example.chess.config.BinaryMoveConverter;
+import com.example.chess.dto.request.ChessMoveRequest;
+import com.example.chess.dto.response.MoveResponse;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.CompositeMessageConverter;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.MessageConversionException;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryMoveConverterTest {
+
+    private final MessageConverter converter = new CompositeMessageConverter(
+            List.of(new BinaryMoveConverter(), new MappingJackson2MessageConverter()));
+
+    @Test
+    void convertAndSend_ShouldUseBinaryOnlyWithItsContentType() {
+        List<Message<?>> sent = new ArrayList<>();
+        SimpMessagingTemplate template = new SimpMessagingTemplate((message, timeout) -> sent.add(message));
+        template.setMessageConverter(converter);
+        MoveResponse response = new MoveResponse(7, 3, 10, 4, 1, 4, 3, null, "In process", true, false);
+
+        template.convertAndSend("/topic/game/7/move", response);
+        SimpMessageHeaderAccessor binary = SimpMessageHeaderAccessor.create();
+        binary.setContentType(BinaryMoveConverter.MIME_TYPE);
+        binary.setLeaveMutable(true);
+        template.convertAndSend("/topic/game/7/move/binary", response, binary.getMessageHeaders());
+
+        String json = new String((byte[]) sent.get(0).getPayload());
+        assertTrue(json.startsWith("{\"gameId\":7"));
+        byte[] frame = (byte[]) sent.get(1).getPayload();
+        assertEquals(23 + "In process".length(), frame.length);
+
+        MoveResponse decoded = (MoveResponse) converter.fromMessage(sent.get(1), MoveResponse.class);
+        assertEquals(7, decoded.getGameId());
+        assertEquals(3, decoded.getSeq());
+        assertEquals(10, decoded.getPlayerId());
+        assertEquals(List.of(4, 1, 4, 3),
+                List.of(decoded.getStartX(), decoded.getStartY(), decoded.getEndX(), decoded.getEndY()));
+        assertEquals("In process", decoded.getStatus());
+        assertTrue(decoded.isCheck());
+        assertFalse(decoded.isFinished());
+    }
+
+    @Test
+    void fromMessage_ShouldDecodeTwoByteMoveWithOptionalPlayer() {
+        // e2-e4: from 12, to 28 << 6
+        ChessMoveRequest move = decode(new byte[]{0x07, 0x0C});
+        assertEquals(List.of(4, 1, 4, 3), List.of(move.getStartX(), move.getStartY(), move.getEndX(), move.getEndY()));
+        assertEquals(0, move.getPlayerId());
+
+        assertEquals(20, decode(new byte[]{0x07, 0x0C, 0, 0, 0, 0, 0, 0, 0, 20}).getPlayerId());
+        assertThrows(MessageConversionException.class, () -> decode(new byte[]{0x07}));
+    }
+
+    @Test
+    void toMessage_ShouldRoundTripUnderpromotion() {
+        // e7-e8 конём: from 52, to 60 << 6, конь (ordinal 1) + 1 << 12
+        MoveResponse response = new MoveResponse(7, 41, 0, 4, 6, 4, 7, "n", "In process", true, false);
+        Message<?> frame = converter.toMessage(response, binaryHeaders());
+        byte[] payload = (byte[]) frame.getPayload();
+        assertEquals(0x2F34, ((payload[20] & 0xFF) << 8) | (payload[21] & 0xFF));
+
+        MoveResponse decoded = (MoveResponse) converter.fromMessage(frame, MoveResponse.class);
+        assertEquals(List.of(4, 6, 4, 7),
+                List.of(decoded.getStartX(), decoded.getStartY(), decoded.getEndX(), decoded.getEndY()));
+        assertEquals("n", decoded.getPromotion());
+
+        ChessMoveRequest request = new ChessMoveRequest();
+        request.setStartX(3);
+        request.setStartY(1);
+        request.setEndX(2);
+        request.setEndY(0);
+        request.setPromotion("r");
+        ChessMoveRequest decodedRequest = (ChessMoveRequest) converter.fromMessage(
+                converter.toMessage(request, binaryHeaders()), ChessMoveRequest.class);
+        assertEquals(List.of(3, 1, 2, 0), List.of(decodedRequest.getStartX(), decodedRequest.getStartY(),
+                decodedRequest.getEndX(), decodedRequest.getEndY()));
+        assertEquals("r", decodedRequest.getPromotion());
+        assertNull(decode(new byte[]{0x07, 0x0C}).getPromotion());
+    }
+
+    @Test
+    void fromMessage_WithoutBinaryContentType_ShouldStayJson() {
+        Message<byte[]> json = MessageBuilder
+                .withPayload("{\"startX\":4,\"startY\":1,\"endX\":4,\"endY\":3,\"playerId\":10}".getBytes())
+                .build();
+        ChessMoveRequest move = (ChessMoveRequest) converter.fromMessage(json, ChessMoveRequest.class);
+        assertEquals(3, move.getEndY());
+        assertEquals(10, move.getPlayerId());
+    }
+
+    private static MessageHeaders binaryHeaders() {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+        accessor.setContentType(BinaryMoveConverter.MIME_TYPE);
+        return accessor.getMessageHeaders();
+    }
+
+    private ChessMoveRequest decode(byte[] frame) {
+        Message<byte[]> message = MessageBuilder.withPayload(frame)
+                .setHeader(MessageHeaders.CONTENT_TYPE, BinaryMoveConverter.MIME_TYPE)
+                .build();
+        return (ChessMoveRequest) converter.fromMessage(message, ChessMoveRequest.class);
+    }
+}
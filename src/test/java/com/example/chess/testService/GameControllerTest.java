@@ -0,0 +1,88 @@
+package com.example.chess.testService;
+
+import com.example.chess.controller.GameController;
+import com.example.chess.dto.request.ChessMoveRequest;
+import com.example.chess.dto.request.DrawClaimRequest;
+import com.example.chess.service.GameManagerService;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GameControllerTest {
+
+    @Mock
+    private GameManagerService gameManagerService;
+
+    private GameController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new GameController(gameManagerService);
+    }
+
+    @Test
+    void forwardMove_WhenPayloadNamesAnotherPlayer_ShouldReject() {
+        assertThrows(AccessDeniedException.class,
+                () -> controller.forwardMove(1, move(20), session("10")));
+        assertThrows(AccessDeniedException.class,
+                () -> controller.claimDraw(1, claim(20), session("10")));
+        assertThrows(AccessDeniedException.class,
+                () -> controller.forwardMove(1, move(10), session("не число")));
+
+        verify(gameManagerService, never()).submitMove(anyLong(), anyLong(), anyInt(), anyInt(), anyInt(), anyInt(),
+                any());
+        verify(gameManagerService, never()).claimDraw(anyLong(), anyLong());
+    }
+
+    @Test
+    void forwardMove_ShouldActForSessionPlayer() {
+        controller.forwardMove(1, move(10), session("10"));
+        controller.forwardMove(1, move(0), session("10"));
+        // сессия без игрока: CONNECT пришёл без заголовка user
+        controller.forwardMove(1, move(20), session(null));
+
+        verify(gameManagerService, times(2)).submitMove(1, 10, 4, 1, 4, 3, null);
+        verify(gameManagerService).submitMove(eq(1L), eq(20L), eq(4), eq(1), eq(4), eq(3), isNull());
+    }
+
+    private static ChessMoveRequest move(long playerId) {
+        ChessMoveRequest move = new ChessMoveRequest();
+        move.setStartX(4);
+        move.setStartY(1);
+        move.setEndX(4);
+        move.setEndY(3);
+        move.setPlayerId(playerId);
+        return move;
+    }
+
+    private static DrawClaimRequest claim(long playerId) {
+        DrawClaimRequest claim = new DrawClaimRequest();
+        claim.setPlayerId(playerId);
+        return claim;
+    }
+
+    private static SimpMessageHeaderAccessor session(String playerId) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create();
+        Map<String, Object> attributes = new HashMap<>();
+        if (playerId != null) {
+            attributes.put("playerId", playerId);
+        }
+        headers.setSessionAttributes(attributes);
+        return headers;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.chess.testService;
+
+import com.example.chess.entity.GameInfo;
+import com.example.chess.service.implementation.GameIdAllocatorImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GameIdAllocatorTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void nextId_ShouldUseSequenceCheckedOnceAtStartup() {
+        GameIdAllocatorImpl allocator = new GameIdAllocatorImpl(jdbcTemplate);
+        assertThrows(IllegalStateException.class, allocator::nextId);
+
+        when(jdbcTemplate.queryForObject(contains("MAX(id)"), eq(Long.class))).thenReturn(250L);
+        when(jdbcTemplate.queryForObject(contains("last_value"), eq(Long.class))).thenReturn(1L);
+        when(jdbcTemplate.queryForObject(contains("setval"), eq(Long.class), eq(250L))).thenReturn(250L);
+        when(jdbcTemplate.queryForObject(contains("nextval"), eq(Long.class))).thenReturn(350L, 450L);
+        allocator.ensureSequence();
+        allocator.ensureSequence();
+
+        assertEquals(251, allocator.nextId());
+        for (int i = 1; i < GameInfo.ID_BLOCK_SIZE; i++) {
+            allocator.nextId();
+        }
+        assertEquals(351, allocator.nextId());
+        verify(jdbcTemplate, times(1)).execute(anyString());
+        verify(jdbcTemplate, times(1)).queryForObject(contains("setval"), eq(Long.class), eq(250L));
+        verify(jdbcTemplate, times(2)).queryForObject(contains("nextval"), eq(Long.class));
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.chess.testService;
+
+import com.example.chess.entity.GameInfo;
+import com.example.chess.service.implementation.GameInfoWriterImpl;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.support.TransactionOperations;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GameInfoWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_ShouldCoalesceSameGameAndRetryAfterFailure() {
+        GameInfoWriterImpl writer = newWriter(Runnable::run, 100, 1_000);
+        // пачка и первая строка по одной: база недоступна
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new TransientDataAccessResourceException("нет соединения"))
+                .thenThrow(new TransientDataAccessResourceException("нет соединения"))
+                .thenReturn(new int[0][]);
+
+        CompletableFuture<Void> first = writer.saveLater(gameInfo(1, "In process"));
+        CompletableFuture<Void> second = writer.saveLater(gameInfo(1, "Checkmate"));
+        writer.saveLater(gameInfo(2, "Stalemate"));
+        assertSame(first, second);
+        assertEquals(2, writer.getPendingCount());
+
+        assertEquals(0, writer.flush());
+        assertEquals(2, writer.getPendingCount());
+        assertFalse(first.isDone());
+
+        assertEquals(2, writer.flush());
+        assertEquals(0, writer.getPendingCount());
+        assertTrue(first.isDone());
+
+        ArgumentCaptor<Collection<?>> batch = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), batch.capture(), eq(100),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(List.of(2, 1, 2), batch.getAllValues().stream().map(Collection::size).toList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_WhenRowIsRejected_ShouldDropItAndWriteTheRest() {
+        GameInfoWriterImpl writer = newWriter(Runnable::run, 100, 1_000);
+        // пачка, затем строки по одной: первая нарушает ограничение, вторая пишется
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataIntegrityViolationException("value too long for notes"))
+                .thenThrow(new DataIntegrityViolationException("value too long for notes"))
+                .thenReturn(new int[0][]);
+
+        CompletableFuture<Void> bad = writer.saveLater(gameInfo(1, "Checkmate"));
+        CompletableFuture<Void> good = writer.saveLater(gameInfo(2, "Stalemate"));
+
+        assertEquals(1, writer.flush());
+        assertTrue(bad.isCompletedExceptionally());
+        assertTrue(good.isDone() && !good.isCompletedExceptionally());
+        assertEquals(0, writer.getPendingCount());
+        assertEquals(1, writer.getDroppedCount());
+    }
+
+    @Test
+    void saveLater_WhenQueueOverflows_ShouldDropOldestWrites() {
+        GameInfoWriterImpl writer = new GameInfoWriterImpl(jdbcTemplate,
+                TransactionOperations.withoutTransaction(), Runnable::run, 100, 1_000, 2, 1_000);
+
+        CompletableFuture<Void> oldest = writer.saveLater(gameInfo(1, "Checkmate"));
+        writer.saveLater(gameInfo(2, "Checkmate"));
+        writer.saveLater(gameInfo(3, "Checkmate"));
+
+        assertTrue(oldest.isCompletedExceptionally());
+        assertEquals(2, writer.getPendingCount());
+        assertEquals(1, writer.getDroppedCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void saveLater_WhenBackgroundFlushIsRejected_ShouldScheduleItAgain() {
+        AtomicInteger rejections = new AtomicInteger(1);
+        GameInfoWriterImpl writer = newWriter(task -> {
+            if (rejections.getAndDecrement() > 0) {
+                throw new TaskRejectedException("пул занят");
+            }
+            task.run();
+        }, 1, 1_000);
+
+        CompletableFuture<Void> first = writer.saveLater(gameInfo(1, "Checkmate"));
+        assertFalse(first.isDone());
+        writer.saveLater(gameInfo(2, "Checkmate"));
+
+        assertTrue(first.isDone());
+        assertEquals(0, writer.getPendingCount());
+        verify(jdbcTemplate).batchUpdate(anyString(), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    private GameInfoWriterImpl newWriter(Executor executor, int batchSize, int capacity) {
+        return new GameInfoWriterImpl(jdbcTemplate, TransactionOperations.withoutTransaction(),
+                executor, batchSize, capacity, 100_000, 1_000);
+    }
+
+    private static GameInfo gameInfo(long id, String status) {
+        GameInfo gameInfo = new GameInfo();
+        gameInfo.setId(id);
+        gameInfo.setStatus(status);
+        return gameInfo;
+    }
+}
@@ -0,0 +1,390 @@
+package com.example.chess.testService;
+
+import com.example.chess.dto.response.GameReplayResponse;
+import com.example.chess.dto.response.GameStateResponse;
+import com.example.chess.dto.response.MoveRejectedResponse;
+import com.example.chess.dto.response.MoveResponse;
+import com.example.chess.engine.Fen;
+import com.example.chess.engine.Move;
+import com.example.chess.engine.pieces.Color;
+import com.example.chess.entity.GameInfo;
+import com.example.chess.entity.Player;
+import com.example.chess.journal.MoveJournal;
+import com.example.chess.repository.GameInfoRepository;
+import com.example.chess.search.ParallelSearch;
+import com.example.chess.service.GameInfoWriter;
+import com.example.chess.service.GameService;
+import com.example.chess.service.OpeningBookService;
+import com.example.chess.service.implementation.GameManagerServiceImpl;
+import com.example.chess.service.implementation.GameServiceImpl;
+import com.example.chess.tablebase.Tablebase;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationContext;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GameManagerServiceTest {
+
+    private static final long WHITE_ID = 10L;
+    private static final long BLACK_ID = 20L;
+    private static final long IDLE_TIMEOUT = 60_000;
+    private static final int REPLAY_MOVES = 2;
+
+    @Mock
+    private GameInfoRepository gameInfoRepository;
+
+    @Mock
+    private GameInfoWriter gameInfoWriter;
+
+    @Mock
+    private ApplicationContext applicationContext;
+
+    @Mock
+    private OpeningBookService openingBookService;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    private ParallelSearch search;
+    private GameManagerServiceImpl gameManagerService;
+    private long gameId;
+
+    @BeforeEach
+    void setUp() {
+        AtomicLong ids = new AtomicLong();
+        when(applicationContext.getBean(GameService.class))
+                .thenAnswer(invocation -> new GameServiceImpl(gameInfoWriter, ids::incrementAndGet));
+        lenient().when(gameInfoWriter.saveLater(any(GameInfo.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        search = new ParallelSearch(1, 1);
+        gameManagerService = newManager(Runnable::run, MoveJournal.disabled());
+        gameId = gameManagerService.createGame(player(WHITE_ID), player(BLACK_ID));
+    }
+
+    @AfterEach
+    void tearDown() {
+        search.close();
+    }
+
+    @Test
+    void submitMove_WhenLegal_ShouldApplyAndBroadcast() {
+        assertTrue(gameManagerService.submitMove(gameId, WHITE_ID, 4, 1, 4, 3).join());
+
+        ArgumentCaptor<MoveResponse> response = ArgumentCaptor.forClass(MoveResponse.class);
+        verify(messagingTemplate).convertAndSend(eq("/topic/game/1/move"), response.capture());
+        assertEquals(WHITE_ID, response.getValue().getPlayerId());
+        assertEquals("In process", response.getValue().getStatus());
+        assertFalse(response.getValue().isFinished());
+        assertFalse(gameManagerService.getActiveGame(gameId).getBoard().isWhiteToMove());
+    }
+
+    @Test
+    void submitMove_WhenNotPlayersTurnOrStranger_ShouldRejectWithoutBroadcast() {
+        assertFalse(gameManagerService.submitMove(gameId, BLACK_ID, 4, 6, 4, 4).join());
+        assertFalse(gameManagerService.submitMove(gameId, 99L, 4, 1, 4, 3).join());
+        assertFalse(gameManagerService.submitMove(gameId, WHITE_ID, 4, 1, 4, 5).join());
+
+        ArgumentCaptor<MoveRejectedResponse> rejected = ArgumentCaptor.forClass(MoveRejectedResponse.class);
+        verify(messagingTemplate).convertAndSend(eq("/topic/20/game/1/rejected"), rejected.capture());
+        assertEquals("NOT_YOUR_TURN", rejected.getValue().getReason());
+        verify(messagingTemplate).convertAndSend(eq("/topic/99/game/1/rejected"), any(MoveRejectedResponse.class));
+        verify(messagingTemplate, never()).convertAndSend(eq("/topic/game/1/move"), any(Object.class));
+        assertTrue(gameManagerService.getActiveGame(gameId).getBoard().isWhiteToMove());
+    }
+
+    @Test
+    void submitMove_WhenCheckmate_ShouldFinishAndReleaseGame() {
+        // дурацкий мат
+        gameManagerService.submitMove(gameId, WHITE_ID, 5, 1, 5, 2);
+        gameManagerService.submitMove(gameId, BLACK_ID, 4, 6, 4, 4);
+        gameManagerService.submitMove(gameId, WHITE_ID, 6, 1, 6, 3);
+        assertTrue(gameManagerService.submitMove(gameId, BLACK_ID, 3, 7, 7, 3).join());
+
+        ArgumentCaptor<MoveResponse> responses = ArgumentCaptor.forClass(MoveResponse.class);
+        verify(messagingTemplate, times(4)).convertAndSend(eq("/topic/game/1/move"), responses.capture());
+        MoveResponse last = responses.getValue();
+        assertEquals("Checkmate", last.getStatus());
+        assertTrue(last.isCheck());
+        assertTrue(last.isFinished());
+        assertNull(gameManagerService.getActiveGame(gameId));
+        assertFalse(gameManagerService.submitMove(gameId, WHITE_ID, 4, 1, 4, 3).join());
+    }
+
+    @Test
+    void claimDraw_WhenThreefoldRepetition_ShouldFinishOnlyOnPlayersClaim() {
+        shuffleKnights();
+        assertFalse(gameManagerService.claimDraw(gameId, WHITE_ID).join());
+        verify(messagingTemplate).convertAndSend(eq("/topic/10/game/1/rejected"),
+                argThat((MoveRejectedResponse rejected) -> "NO_DRAW_TO_CLAIM".equals(rejected.getReason())));
+
+        // третье повторение само партию не заканчивает
+        shuffleKnights();
+        GameService game = gameManagerService.getActiveGame(gameId);
+        assertEquals("In process", game.getStatus());
+        assertFalse(gameManagerService.claimDraw(gameId, 99L).join());
+
+        assertTrue(gameManagerService.claimDraw(gameId, BLACK_ID).join());
+        ArgumentCaptor<GameStateResponse> finished = ArgumentCaptor.forClass(GameStateResponse.class);
+        verify(messagingTemplate).convertAndSend(eq("/topic/game/1/finished"), finished.capture());
+        assertEquals("Draw by repetition", finished.getValue().getStatus());
+        assertTrue(finished.getValue().isFinished());
+        assertNull(gameManagerService.getActiveGame(gameId));
+        verify(gameInfoWriter).saveLater(game.getGameInfo());
+        assertFalse(gameManagerService.claimDraw(gameId, WHITE_ID).join());
+    }
+
+    @Test
+    void submitMove_WhenFivefoldRepetition_ShouldDrawWithoutClaim() {
+        for (int i = 0; i < 4; i++) {
+            shuffleKnights();
+        }
+
+        ArgumentCaptor<MoveResponse> responses = ArgumentCaptor.forClass(MoveResponse.class);
+        verify(messagingTemplate, times(16)).convertAndSend(eq("/topic/game/1/move"), responses.capture());
+        assertEquals("Draw by fivefold repetition", responses.getValue().getStatus());
+        assertTrue(responses.getValue().isFinished());
+        assertNull(gameManagerService.getActiveGame(gameId));
+    }
+
+    @Test
+    void getGameState_ShouldMatchSequenceOfBroadcastMoves() {
+        GameStateResponse initial = gameManagerService.getGameState(gameId).join();
+        assertEquals(0, initial.getSeq());
+        assertEquals(Fen.START_POSITION, initial.getFen());
+        assertEquals("WHITE", initial.getCurrentTurnColor());
+
+        gameManagerService.submitMove(gameId, WHITE_ID, 4, 1, 4, 3);
+        gameManagerService.submitMove(gameId, WHITE_ID, 3, 1, 3, 3);
+        gameManagerService.submitMove(gameId, BLACK_ID, 4, 6, 4, 4);
+
+        ArgumentCaptor<MoveResponse> responses = ArgumentCaptor.forClass(MoveResponse.class);
+        verify(messagingTemplate, times(2)).convertAndSend(eq("/topic/game/1/move"), responses.capture());
+        assertEquals(List.of(1L, 2L), responses.getAllValues().stream().map(MoveResponse::getSeq).toList());
+
+        GameStateResponse state = gameManagerService.getGameState(gameId).join();
+        assertEquals(2, state.getSeq());
+        assertEquals("rnbqkbnr/pppp1ppp/8/4p3/4P3/8/PPPP1PPP/RNBQKBNR w KQkq e6 0 2", state.getFen());
+        assertFalse(state.isFinished());
+        assertNull(gameManagerService.getGameState(404L).join());
+    }
+
+    @Test
+    void replayMoves_ShouldReturnMissedMovesOrSnapshotWhenTooOld() {
+        gameManagerService.submitMove(gameId, WHITE_ID, 4, 1, 4, 3);
+        gameManagerService.submitMove(gameId, BLACK_ID, 4, 6, 4, 4);
+        gameManagerService.submitMove(gameId, WHITE_ID, 6, 0, 5, 2);
+
+        GameReplayResponse recent = gameManagerService.replayMoves(gameId, 1).join();
+        assertEquals(List.of(2L, 3L), recent.getMoves().stream().map(MoveResponse::getSeq).toList());
+        assertNull(recent.getSnapshot());
+        assertTrue(gameManagerService.replayMoves(gameId, 3).join().getMoves().isEmpty());
+
+        // в кольце только REPLAY_MOVES последних ходов
+        GameReplayResponse old = gameManagerService.replayMoves(gameId, 0).join();
+        assertTrue(old.getMoves().isEmpty());
+        assertEquals(3, old.getSnapshot().getSeq());
+        assertNotNull(gameManagerService.replayMoves(gameId, 7).join().getSnapshot());
+        assertNull(gameManagerService.replayMoves(404L, 0).join());
+    }
+
+    @Test
+    void replayMoves_WhenReplayDisabled_ShouldReturnSnapshot() {
+        GameManagerServiceImpl withoutReplay = new GameManagerServiceImpl(gameInfoRepository, applicationContext,
+                Runnable::run, Runnable::run, search, openingBookService, Tablebase.empty(),
+                MoveJournal.disabled(), messagingTemplate, 2, 10_000, 1_000, IDLE_TIMEOUT, 0, false);
+        long game = withoutReplay.createGame(player(WHITE_ID), player(BLACK_ID));
+
+        assertTrue(withoutReplay.submitMove(game, WHITE_ID, 4, 1, 4, 3).join());
+
+        assertEquals(1, withoutReplay.replayMoves(game, 0).join().getSnapshot().getSeq());
+        assertTrue(withoutReplay.replayMoves(game, 1).join().getMoves().isEmpty());
+    }
+
+    @Test
+    void evictIdleGames_ShouldAbandonOnlyIdleGamesAndSaveResult() {
+        long now = System.currentTimeMillis();
+        assertEquals(0, gameManagerService.evictIdleGames(now));
+        assertEquals(1, gameManagerService.getLiveGames().getActiveGames());
+        assertTrue(gameManagerService.getLiveGames().getEstimatedBytes() > 0);
+
+        GameService game = gameManagerService.getActiveGame(gameId);
+        assertEquals(1, gameManagerService.evictIdleGames(now + IDLE_TIMEOUT + 1));
+
+        assertNull(gameManagerService.getActiveGame(gameId));
+        assertEquals("Abandoned", game.getStatus());
+        assertEquals("Abandoned", game.getGameInfo().getStatus());
+        verify(gameInfoWriter).saveLater(game.getGameInfo());
+        assertEquals(0, gameManagerService.getLiveGames().getActiveGames());
+        assertEquals(1, gameManagerService.getLiveGames().getEvictedGames());
+    }
+
+    @Test
+    void submitMove_WhenSameMoveRacesFromManyThreads_ShouldApplyOnce() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            GameManagerServiceImpl pooled = newManager(pool, MoveJournal.disabled());
+            long pooledGame = pooled.createGame(player(WHITE_ID), player(BLACK_ID));
+
+            List<CompletableFuture<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                results.add(CompletableFuture.supplyAsync(
+                        () -> pooled.submitMove(pooledGame, WHITE_ID, 4, 1, 4, 3), pool)
+                        .thenCompose(result -> result));
+            }
+
+            long accepted = results.stream().filter(CompletableFuture::join).count();
+            assertEquals(1, accepted);
+            verify(messagingTemplate, times(1)).convertAndSend(eq("/topic/game/" + pooledGame + "/move"),
+                    any(MoveResponse.class));
+            verify(messagingTemplate, times(15)).convertAndSend(eq("/topic/10/game/" + pooledGame + "/rejected"),
+                    any(MoveRejectedResponse.class));
+        } finally {
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void recoverGames_ShouldReplayJournaledMovesAndSkipFinishedGames(@TempDir Path directory) throws Exception {
+        MoveJournal journal = MoveJournal.open(directory, 1 << 20, 1_000);
+        GameManagerServiceImpl before = newManager(Runnable::run, journal);
+        long live = before.createGame(player(WHITE_ID), player(BLACK_ID));
+        // строка этой партии не успела попасть в базу
+        long unsaved = before.createGame(player(WHITE_ID), player(BLACK_ID));
+        before.submitMove(live, WHITE_ID, 4, 1, 4, 3).join();
+        before.submitMove(live, BLACK_ID, 4, 6, 4, 4).join();
+        before.submitMove(live, WHITE_ID, 6, 0, 5, 2).join();
+        String fen = Fen.toFen(before.getActiveGame(live).getBoard());
+        GameInfo info = before.getActiveGame(live).getGameInfo();
+        journal.gameStarted(99L, WHITE_ID, BLACK_ID, null);
+        journal.gameEnded(99L);
+        journal.close();
+
+        when(gameInfoRepository.findById(live)).thenReturn(Optional.of(info));
+        try (MoveJournal reopened = MoveJournal.open(directory, 1 << 20, 1_000)) {
+            GameManagerServiceImpl after = newManager(Runnable::run, reopened);
+            assertEquals(2, after.recoverJournaledGames());
+
+            GameService restored = after.getActiveGame(live);
+            assertEquals(fen, Fen.toFen(restored.getBoard()));
+            assertEquals(Color.BLACK, restored.getPlayerColor(BLACK_ID));
+            assertTrue(after.submitMove(live, BLACK_ID, 1, 7, 2, 5).join());
+            // нумерация продолжается, но ходы до перезапуска отдаются только снимком
+            int moves = restored.getMoveCount();
+            assertEquals(1, after.replayMoves(live, moves - 1).join().getMoves().size());
+            assertEquals(moves, after.replayMoves(live, moves - 2).join().getSnapshot().getSeq());
+            assertEquals(Color.WHITE, after.getActiveGame(unsaved).getPlayerColor(WHITE_ID));
+            verify(gameInfoWriter, times(2)).insertLater(argThat(gameInfo -> gameInfo.getId() == unsaved));
+        }
+    }
+
+    @Test
+    void submitMove_InBotGame_ShouldBroadcastBotReply() {
+        long botGame = gameManagerService.createBotGame(player(WHITE_ID), Color.WHITE);
+        assertTrue(gameManagerService.isBotGame(botGame));
+
+        assertTrue(gameManagerService.submitMove(botGame, WHITE_ID, 4, 1, 4, 3).join());
+
+        ArgumentCaptor<MoveResponse> responses = ArgumentCaptor.forClass(MoveResponse.class);
+        verify(messagingTemplate, times(2)).convertAndSend(eq("/topic/game/" + botGame + "/move"),
+                responses.capture());
+        assertEquals(List.of(WHITE_ID, 0L), responses.getAllValues().stream().map(MoveResponse::getPlayerId).toList());
+        assertEquals(List.of(1L, 2L), responses.getAllValues().stream().map(MoveResponse::getSeq).toList());
+        GameService game = gameManagerService.getActiveGame(botGame);
+        assertTrue(game.getBoard().isWhiteToMove());
+        assertEquals(2, game.getMoveCount());
+    }
+
+    @Test
+    void playBotMove_WhenGameAlreadyFinished_ShouldDoNothing() {
+        long botGame = gameManagerService.createBotGame(player(WHITE_ID), Color.WHITE);
+        assertTrue(gameManagerService.endGame(botGame).join());
+
+        assertFalse(gameManagerService.isBotGame(botGame));
+        assertEquals(Move.NONE, gameManagerService.playBotMove(botGame).join());
+        verify(openingBookService, never()).findMove(any());
+        verify(messagingTemplate, never()).convertAndSend(eq("/topic/game/" + botGame + "/move"), any(Object.class));
+    }
+
+    @Test
+    void playBotMove_WhenBotPoolRejectsOnce_ShouldRetryAndMove() {
+        AtomicInteger rejections = new AtomicInteger(1);
+        GameManagerServiceImpl manager = newManager(Runnable::run, task -> {
+            if (rejections.getAndDecrement() > 0) {
+                throw new RejectedExecutionException("очередь бота заполнена");
+            }
+            task.run();
+        }, MoveJournal.disabled());
+
+        // бот играет белыми и ходит сразу
+        long botGame = manager.createBotGame(player(BLACK_ID), Color.BLACK);
+
+        assertFalse(manager.getActiveGame(botGame).getBoard().isWhiteToMove());
+        assertEquals(1, manager.getActiveGame(botGame).getMoveCount());
+        // повтор не делает второй ход за бота
+        assertEquals(Move.NONE, manager.playBotMove(botGame).join());
+        assertEquals(1, manager.getActiveGame(botGame).getMoveCount());
+    }
+
+    @Test
+    void playBotMove_WhenSearchKeepsFailing_ShouldAbandonGameInsteadOfHanging() {
+        when(openingBookService.findMove(any())).thenThrow(new IllegalStateException("книга повреждена"));
+
+        long botGame = gameManagerService.createBotGame(player(BLACK_ID), Color.BLACK);
+
+        assertNull(gameManagerService.getActiveGame(botGame));
+        verify(openingBookService, times(2)).findMove(any());
+        verify(gameInfoWriter).saveLater(argThat(gameInfo ->
+                gameInfo.getId() == botGame && "Abandoned".equals(gameInfo.getStatus())));
+    }
+
+    // Кg1-f3 Кg8-f6 Кf3-g1 Кf6-g8: начальная позиция повторяется ещё раз
+    private void shuffleKnights() {
+        assertTrue(gameManagerService.submitMove(gameId, WHITE_ID, 6, 0, 5, 2).join());
+        assertTrue(gameManagerService.submitMove(gameId, BLACK_ID, 6, 7, 5, 5).join());
+        assertTrue(gameManagerService.submitMove(gameId, WHITE_ID, 5, 2, 6, 0).join());
+        assertTrue(gameManagerService.submitMove(gameId, BLACK_ID, 5, 5, 6, 7).join());
+    }
+
+    private GameManagerServiceImpl newManager(Executor gameExecutor, MoveJournal journal) {
+        return newManager(gameExecutor, Runnable::run, journal);
+    }
+
+    private GameManagerServiceImpl newManager(Executor gameExecutor, Executor botExecutor, MoveJournal journal) {
+        return new GameManagerServiceImpl(gameInfoRepository, applicationContext, gameExecutor, botExecutor,
+                search, openingBookService, Tablebase.empty(), journal, messagingTemplate,
+                2, 10_000, 1_000, IDLE_TIMEOUT, REPLAY_MOVES, false);
+    }
+
+    private static Player player(long id) {
+        Player player = new Player();
+        player.setId(id);
+        return player;
+    }
+}
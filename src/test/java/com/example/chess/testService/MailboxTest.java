@@ -0,0 +1,52 @@
+package com.example.chess.testService;
+
+import com.example.chess.utils.Mailbox;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MailboxTest {
+
+    @Test
+    void call_WhenTaskThrowsError_ShouldFailFutureAndKeepDraining() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Mailbox mailbox = new Mailbox(executor);
+            CompletableFuture<Integer> failed = mailbox.call(() -> {
+                throw new StackOverflowError();
+            });
+            CompletableFuture<Integer> next = mailbox.call(() -> 42);
+
+            ExecutionException error = assertThrows(ExecutionException.class,
+                    () -> failed.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(StackOverflowError.class, error.getCause());
+            assertEquals(42, next.get(5, TimeUnit.SECONDS));
+            assertEquals(7, mailbox.call(() -> 7).get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_WhenPoolRejects_ShouldScheduleAgainLater() throws Exception {
+        AtomicBoolean reject = new AtomicBoolean(true);
+        Mailbox mailbox = new Mailbox(task -> {
+            if (reject.get()) {
+                throw new RejectedExecutionException("очередь пула заполнена");
+            }
+            task.run();
+        });
+
+        assertThrows(RejectedExecutionException.class, () -> mailbox.execute(() -> { }));
+        reject.set(false);
+        assertEquals(1, mailbox.call(() -> 1).get(5, TimeUnit.SECONDS));
+        assertEquals(0, mailbox.size());
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.chess.testService;
+
+import com.example.chess.engine.pieces.Color;
+import com.example.chess.journal.JournaledGame;
+import com.example.chess.journal.MoveJournal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveJournalTest {
+
+    @Test
+    void recover_WhenCompactionCrashedBeforeDeletingOldSegments_ShouldNotResurrectEndedGames(@TempDir Path directory)
+            throws Exception {
+        try (MoveJournal journal = MoveJournal.open(directory, 1 << 20, 60_000)) {
+            journal.gameStarted(1, 10, 0, Color.BLACK);
+            journal.moveMade(1, 100);
+            journal.gameStarted(2, 20, 21, null);
+            journal.moveMade(2, 200);
+        }
+        Path first = directory.resolve("moves-0000000001.log");
+        byte[] beforeCompaction = Files.readAllBytes(first);
+
+        // сегмент размером в байт закрывается на первом же flush, и закрытые сегменты сжимаются
+        try (MoveJournal journal = MoveJournal.open(directory, 1, 60_000)) {
+            journal.gameEnded(1);
+            journal.gameStarted(3, 30, 0, Color.WHITE);
+            journal.flush();
+        }
+        assertFalse(Files.exists(first));
+
+        // сбой после замены сжатым сегментом, но до удаления старых
+        Files.write(first, beforeCompaction);
+
+        try (MoveJournal journal = MoveJournal.open(directory, 1 << 20, 60_000)) {
+            List<JournaledGame> games = journal.recover();
+
+            assertEquals(List.of(2L, 3L), games.stream().map(JournaledGame::getGameId).toList());
+            assertArrayEquals(new int[]{200}, games.get(0).getMoves());
+        }
+    }
+
+    @Test
+    void compact_WhenOldSegmentsAreGone_ShouldDropEndedGamesCompletely(@TempDir Path directory) throws Exception {
+        try (MoveJournal journal = MoveJournal.open(directory, 1 << 20, 60_000)) {
+            journal.gameStarted(1, 10, 11, null);
+            journal.moveMade(1, 100);
+            journal.gameEnded(1);
+        }
+        try (MoveJournal journal = MoveJournal.open(directory, 1, 60_000)) {
+            journal.gameStarted(2, 20, 0, Color.BLACK);
+            journal.flush();
+            journal.moveMade(2, 200);
+            journal.flush();
+        }
+
+        try (MoveJournal journal = MoveJournal.open(directory, 1 << 20, 60_000)) {
+            List<JournaledGame> games = journal.recover();
+
+            assertEquals(List.of(2L), games.stream().map(JournaledGame::getGameId).toList());
+            assertArrayEquals(new int[]{200}, games.get(0).getMoves());
+        }
+        long journalBytes = 0;
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                journalBytes += Files.size(file);
+            }
+        }
+        // остались только START и MOVE партии 2: ни записей, ни END партии 1
+        assertEquals((1 + 8 + 17 + 4) + (1 + 8 + 4 + 4), journalBytes);
+    }
+}